@@ -0,0 +1,55 @@
+package core.basesyntax;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Generates supply/buy CSV files of a given size for the benchmarks.
+ */
+public enum BenchmarkInput {
+    /**
+     * About the size of {@code apple.csv}.
+     */
+    TINY(100),
+    MEDIUM(100L * 1024 * 1024),
+    LARGE(3L * 1024 * 1024 * 1024);
+
+    private static final String SUPPLY_OPERATION = "supply";
+    private static final String BUY_OPERATION = "buy";
+    private static final int MAX_AMOUNT = 1000;
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 20;
+    private static final long SEED = 42;
+
+    private final long targetSize;
+
+    BenchmarkInput(long targetSize) {
+        this.targetSize = targetSize;
+    }
+
+    /**
+     * Writes records until the file reaches the target size and returns the
+     * number of records written.
+     */
+    long generate(Path file) throws IOException {
+        Random random = new Random(SEED);
+        long records = 0;
+        long size = 0;
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file),
+                OUTPUT_BUFFER_SIZE)) {
+            while (size < targetSize) {
+                String operation = random.nextBoolean() ? SUPPLY_OPERATION : BUY_OPERATION;
+                byte[] line = (operation + "," + random.nextInt(MAX_AMOUNT) + "\n")
+                        .getBytes(StandardCharsets.US_ASCII);
+                out.write(line);
+                size += line.length;
+                records++;
+            }
+        }
+        return records;
+    }
+}
@@ -0,0 +1,74 @@
+package core.basesyntax;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the decoding cost the byte-level path removes: the same ASCII file
+ * is read through {@link DecodingTotalsReader}, which decodes every byte into
+ * a char, and through the byte-level reader behind
+ * {@link AsciiTotalsReader}, which checks the amounts for non-ASCII bytes
+ * and never decodes this file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DecodingBenchmark {
+    @Param({"TINY", "MEDIUM"})
+    public BenchmarkInput input;
+
+    @Param({"UTF-8", "ISO-8859-1"})
+    public String charset;
+
+    private Path source;
+    private long records;
+    private long bytes;
+    private TotalsReader decodingReader;
+    private TotalsReader asciiReader;
+
+    @Setup(Level.Trial)
+    public void generateInput() throws IOException {
+        source = Files.createTempFile("decoding-benchmark", ".csv");
+        records = input.generate(source);
+        bytes = Files.size(source);
+        DecodingTotalsReader decoding = new DecodingTotalsReader(Charset.forName(charset));
+        decodingReader = decoding;
+        asciiReader = new AsciiTotalsReader(new BufferedTotalsReader(), decoding);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteInput() throws IOException {
+        Files.deleteIfExists(source);
+    }
+
+    @Benchmark
+    public Totals decoded(Throughput throughput) throws IOException {
+        throughput.add(records, bytes);
+        return decodingReader.read(source);
+    }
+
+    @Benchmark
+    public Totals rawBytes(Throughput throughput) throws IOException {
+        throughput.add(records, bytes);
+        return asciiReader.read(source);
+    }
+}
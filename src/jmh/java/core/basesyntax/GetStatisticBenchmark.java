@@ -0,0 +1,74 @@
+package core.basesyntax;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link WorkWithFile#getStatistic(String, String, ReadMode)} end to
+ * end and its read/parse phase alone for generated inputs of several sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class GetStatisticBenchmark {
+    @Param({"TINY", "MEDIUM", "LARGE"})
+    public BenchmarkInput input;
+
+    @Param({"BUFFERED", "MEMORY_MAPPED", "PARALLEL"})
+    public ReadMode readMode;
+
+    private final WorkWithFile workWithFile = new WorkWithFile();
+    private Path directory;
+    private String fromFileName;
+    private String toFileName;
+    private long records;
+    private long bytes;
+
+    @Setup(Level.Trial)
+    public void generateInput() throws IOException {
+        directory = Files.createTempDirectory("get-statistic-benchmark");
+        Path source = directory.resolve("input.csv");
+        records = input.generate(source);
+        bytes = Files.size(source);
+        fromFileName = source.toString();
+        toFileName = directory.resolve("report.csv").toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteInput() throws IOException {
+        Files.deleteIfExists(Path.of(fromFileName));
+        Files.deleteIfExists(Path.of(toFileName));
+        Files.deleteIfExists(directory);
+        workWithFile.close();
+    }
+
+    @Benchmark
+    public String getStatistic(Throughput throughput) {
+        throughput.add(records, bytes);
+        return workWithFile.getStatistic(fromFileName, toFileName, readMode);
+    }
+
+    @Benchmark
+    public Totals readAndCalculateTotals(Throughput throughput) {
+        throughput.add(records, bytes);
+        return workWithFile.readAndCalculateTotals(fromFileName, readMode);
+    }
+}
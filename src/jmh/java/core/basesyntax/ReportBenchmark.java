@@ -0,0 +1,86 @@
+package core.basesyntax;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the {@code createReport} and {@code writeToFile} phases of
+ * {@link WorkWithFile}, and the same phases of the byte buffer output path
+ * behind {@code writeStatistic}. Both are independent of the input size, so one record
+ * here is one report.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ReportBenchmark {
+    private static final int SUPPLY = 1_500_431_213;
+    private static final int BUY = 1_499_925_860;
+
+    private final WorkWithFile workWithFile = new WorkWithFile();
+    private final Totals totals = new Totals();
+    private final ReportRenderer renderer = new ReportRenderer();
+    private final ReportPublisher publisher = new ReportPublisher(Durability.NONE);
+    private Path directory;
+    private String toFileName;
+    private String report;
+    private long reportBytes;
+
+    @Setup(Level.Trial)
+    public void prepare() throws IOException {
+        totals.supply = SUPPLY;
+        totals.buy = BUY;
+        report = workWithFile.createReport(totals);
+        reportBytes = report.getBytes(StandardCharsets.UTF_8).length;
+        directory = Files.createTempDirectory("report-benchmark");
+        toFileName = directory.resolve("report.csv").toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteReport() throws IOException {
+        Files.deleteIfExists(Path.of(toFileName));
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public String createReport(Throughput throughput) {
+        throughput.add(1, reportBytes);
+        return workWithFile.createReport(totals);
+    }
+
+    @Benchmark
+    public void writeToFile(Throughput throughput) {
+        throughput.add(1, reportBytes);
+        workWithFile.writeToFile(toFileName, report);
+    }
+
+    @Benchmark
+    public ByteBuffer renderReport(Throughput throughput) {
+        throughput.add(1, reportBytes);
+        return renderer.render(totals);
+    }
+
+    @Benchmark
+    public void publishRenderedReport(Throughput throughput) throws IOException {
+        throughput.add(1, reportBytes);
+        publisher.publish(Path.of(toFileName), renderer.render(totals));
+    }
+}
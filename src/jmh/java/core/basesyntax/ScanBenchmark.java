@@ -0,0 +1,102 @@
+package core.basesyntax;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares parsing an in-memory file with the original
+ * {@code readLine()}/{@code split(",")} loop against {@link TotalsParser} with
+ * the scalar and the Vector API {@link DelimiterScanner}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class ScanBenchmark {
+    private static final String SUPPLY_OPERATION = "supply";
+    private static final String BUY_OPERATION = "buy";
+    private static final String CSV_DELIMITER = ",";
+
+    private byte[] data;
+    private ByteBuffer buffer;
+    private long records;
+
+    @Setup(Level.Trial)
+    public void generateInput() throws IOException {
+        Path source = Files.createTempFile("scan-benchmark", ".csv");
+        try {
+            records = BenchmarkInput.MEDIUM.generate(source);
+            data = Files.readAllBytes(source);
+        } finally {
+            Files.delete(source);
+        }
+        buffer = ByteBuffer.wrap(data);
+    }
+
+    @Benchmark
+    public Totals splitLines(Throughput throughput) throws IOException {
+        throughput.add(records, data.length);
+        Totals totals = new Totals();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new ByteArrayInputStream(data)))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(CSV_DELIMITER);
+                if (parts.length != 2) {
+                    continue;
+                }
+                int amount;
+                try {
+                    amount = Integer.parseInt(parts[1]);
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+                if (SUPPLY_OPERATION.equals(parts[0])) {
+                    totals.supply += amount;
+                } else if (BUY_OPERATION.equals(parts[0])) {
+                    totals.buy += amount;
+                }
+            }
+        }
+        return totals;
+    }
+
+    @Benchmark
+    public Totals scalarScanner(Throughput throughput) {
+        throughput.add(records, data.length);
+        return parse(DelimiterScanners.scalar());
+    }
+
+    @Benchmark
+    public Totals vectorScanner(Throughput throughput) {
+        throughput.add(records, data.length);
+        return parse(DelimiterScanners.preferred());
+    }
+
+    private Totals parse(DelimiterScanner scanner) {
+        Totals totals = new Totals();
+        TotalsParser parser = new TotalsParser(totals, scanner);
+        parser.parse(buffer, 0, data.length);
+        parser.finish();
+        return totals;
+    }
+}
@@ -0,0 +1,29 @@
+package core.basesyntax;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Secondary JMH counters, reported as records/s and bytes/s next to the
+ * primary ops/s score.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class Throughput {
+    public long records;
+    public long bytes;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        records = 0;
+        bytes = 0;
+    }
+
+    void add(long processedRecords, long processedBytes) {
+        records += processedRecords;
+        bytes += processedBytes;
+    }
+}
@@ -0,0 +1,72 @@
+package core.basesyntax;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Compares a whole block of bytes (32 with AVX2, 64 with AVX-512) against
+ * the delimiters at once and falls back to single bytes only for the tail of
+ * the range.
+ *
+ * <p>The comparison of a block yields a bit mask of all its delimiters, and
+ * the mask of the last block is kept: a short line has its comma, its line
+ * terminator and the comma of the next line in the same block, so the
+ * following calls only look for the next set bit instead of loading and
+ * comparing the block again. Hence an instance must only be used by one
+ * parser, which calls {@link #reset()} whenever the buffer content may have
+ * changed.
+ *
+ * <p>The incubating Vector API doesn't beat {@link ScalarDelimiterScanner}
+ * on the short fields of these files, so this class is only built by the
+ * benchmark profile, which compiles with the {@code jdk.incubator.vector}
+ * module, for {@link ScanBenchmark} to compare the two. It must only be
+ * loaded when that module is present; {@link DelimiterScanners} takes care
+ * of that.
+ */
+class VectorDelimiterScanner implements DelimiterScanner {
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+    private static final byte DELIMITER = ',';
+    private static final byte LINE_FEED = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+
+    private static final int LANES = SPECIES.length();
+
+    private final DelimiterScanner tailScanner = new ScalarDelimiterScanner();
+    private ByteBuffer maskBuffer;
+    private int maskStart;
+    private long mask;
+
+    @Override
+    public int nextDelimiter(ByteBuffer buffer, int from, int to) {
+        int i = from;
+        if (buffer == maskBuffer && from >= maskStart && from < maskStart + LANES) {
+            long remaining = mask & (-1L << (from - maskStart));
+            if (remaining != 0) {
+                return Math.min(to, maskStart + Long.numberOfTrailingZeros(remaining));
+            }
+            i = maskStart + LANES;
+        }
+        for (; i + LANES <= to; i += LANES) {
+            ByteVector bytes = ByteVector.fromByteBuffer(SPECIES, buffer, i,
+                    ByteOrder.nativeOrder());
+            long delimiters = bytes.eq(DELIMITER)
+                    .or(bytes.eq(LINE_FEED))
+                    .or(bytes.eq(CARRIAGE_RETURN))
+                    .toLong();
+            if (delimiters != 0) {
+                maskBuffer = buffer;
+                maskStart = i;
+                mask = delimiters;
+                return i + Long.numberOfTrailingZeros(delimiters);
+            }
+        }
+        return tailScanner.nextDelimiter(buffer, i, to);
+    }
+
+    @Override
+    public void reset() {
+        maskBuffer = null;
+    }
+}
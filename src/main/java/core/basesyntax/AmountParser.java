@@ -0,0 +1,135 @@
+package core.basesyntax;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Validating parser for the amount field. It accepts what
+ * {@code Integer.parseInt} accepts for ASCII input, but reports a malformed
+ * value through its return value instead of throwing, so a feed full of
+ * garbage rows costs no stack traces.
+ *
+ * <p>{@link #parse} returns either the amount or one of the out-of-range codes
+ * {@link #NON_NUMERIC} and {@link #OVERFLOW}; use {@link #isAmount} to tell
+ * them apart.
+ */
+final class AmountParser {
+    static final long NON_NUMERIC = Long.MIN_VALUE;
+    static final long OVERFLOW = Long.MIN_VALUE + 1;
+
+    private static final byte PLUS = '+';
+    private static final byte MINUS = '-';
+    private static final int RADIX = 10;
+    private static final long MAX_MAGNITUDE = -(long) Integer.MIN_VALUE;
+
+    private AmountParser() {
+    }
+
+    /**
+     * Parses the bytes between the absolute indexes {@code from} (inclusive)
+     * and {@code to} (exclusive). A value that is both too large and not
+     * numeric is reported as {@link #NON_NUMERIC}, like
+     * {@code Integer.parseInt} would.
+     */
+    static long parse(ByteBuffer buffer, int from, int to) {
+        if (from == to) {
+            return NON_NUMERIC;
+        }
+        byte first = buffer.get(from);
+        boolean negative = first == MINUS;
+        int position = negative || first == PLUS ? from + 1 : from;
+        if (position == to) {
+            return NON_NUMERIC;
+        }
+        long magnitude = 0;
+        for (; position < to; position++) {
+            int digit = buffer.get(position) - '0';
+            if (digit < 0 || digit >= RADIX) {
+                return NON_NUMERIC;
+            }
+            if (magnitude <= MAX_MAGNITUDE) {
+                magnitude = magnitude * RADIX + digit;
+            }
+        }
+        return toAmount(negative, magnitude);
+    }
+
+    /**
+     * Same as {@link #parse(ByteBuffer, int, int)} for decoded text, so any
+     * Unicode decimal digit counts as a digit, like in
+     * {@code Integer.parseInt}.
+     */
+    static long parse(CharSequence text) {
+        int length = text.length();
+        if (length == 0) {
+            return NON_NUMERIC;
+        }
+        char first = text.charAt(0);
+        boolean negative = first == MINUS;
+        int position = negative || first == PLUS ? 1 : 0;
+        if (position == length) {
+            return NON_NUMERIC;
+        }
+        long magnitude = 0;
+        for (; position < length; position++) {
+            int digit = Character.digit(text.charAt(position), RADIX);
+            if (digit < 0) {
+                return NON_NUMERIC;
+            }
+            magnitude = appendDigit(magnitude, digit);
+        }
+        return toAmount(negative, magnitude);
+    }
+
+    /**
+     * Returns whether any byte between the absolute indexes {@code from}
+     * (inclusive) and {@code to} (exclusive) is not ASCII.
+     */
+    static boolean hasNonAscii(ByteBuffer buffer, int from, int to) {
+        for (int position = from; position < to; position++) {
+            if (buffer.get(position) < 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Applies the sign to a magnitude that was accumulated from digits only,
+     * or returns {@link #OVERFLOW} if the result does not fit into an
+     * {@code int}.
+     */
+    static long toAmount(boolean negative, long magnitude) {
+        if (magnitude > (negative ? MAX_MAGNITUDE : Integer.MAX_VALUE)) {
+            return OVERFLOW;
+        }
+        return negative ? -magnitude : magnitude;
+    }
+
+    /**
+     * Returns whether a value returned by this parser is an amount rather than
+     * an error code.
+     */
+    static boolean isAmount(long value) {
+        return value >= Integer.MIN_VALUE;
+    }
+
+    /**
+     * Returns the reason for an error code returned by this parser.
+     */
+    static SkipReason toSkipReason(long value) {
+        return value == OVERFLOW ? SkipReason.OVERFLOW : SkipReason.NON_NUMERIC;
+    }
+
+    /**
+     * Adds one more digit to a magnitude, saturating once it is out of the
+     * {@code int} range so it can never overflow a {@code long}.
+     */
+    static long appendDigit(long magnitude, int digit) {
+        return magnitude <= MAX_MAGNITUDE ? magnitude * RADIX + digit : magnitude;
+    }
+
+    static int toDigit(byte current) {
+        int digit = current - '0';
+        return digit >= 0 && digit < RADIX ? digit : -1;
+    }
+}
@@ -0,0 +1,33 @@
+package core.basesyntax;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Reads the source with a byte-level reader, which skips charset decoding
+ * altogether, and falls back to a {@link DecodingTotalsReader} only where
+ * that would change the result.
+ *
+ * <p>That is the case when the charset is not ASCII-transparent, and when
+ * the byte-level pass skipped an amount because of non-ASCII bytes that may
+ * be digits of another script. Sources of ASCII data never take the
+ * fallback, and a few bad lines among them cost one more pass at most.
+ */
+class AsciiTotalsReader implements TotalsReader {
+    private final TotalsReader byteReader;
+    private final DecodingTotalsReader decodingReader;
+
+    AsciiTotalsReader(TotalsReader byteReader, DecodingTotalsReader decodingReader) {
+        this.byteReader = byteReader;
+        this.decodingReader = decodingReader;
+    }
+
+    @Override
+    public Totals read(Path source) throws IOException {
+        if (!decodingReader.isAsciiTransparent()) {
+            return decodingReader.read(source);
+        }
+        Totals totals = byteReader.read(source);
+        return totals.nonAsciiAmounts == 0 ? totals : decodingReader.read(source);
+    }
+}
@@ -0,0 +1,206 @@
+package core.basesyntax;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Reads the source through an {@link AsynchronousFileChannel}, so no thread
+ * waits for the disk. Each completed read is parsed as a task on the given
+ * executor, which then issues the next read. The byte-level
+ * {@link TotalsParser} is used unless another {@link ChunkParser} is given.
+ *
+ * <p>Completing the returned future from outside, for example by cancelling
+ * it, closes the channel and stops the loop after the task in flight. The
+ * buffer borrowed from the {@link ByteBufferPool} is returned only once no
+ * read into it is pending.
+ */
+class AsyncTotalsReader {
+    private final ByteBufferPool bufferPool;
+
+    AsyncTotalsReader() {
+        this(ByteBufferPool.getDefault());
+    }
+
+    AsyncTotalsReader(ByteBufferPool bufferPool) {
+        this.bufferPool = bufferPool;
+    }
+
+    CompletableFuture<Totals> read(Path source, Executor executor) {
+        return read(source, executor, ByteLevelParser::new);
+    }
+
+    CompletableFuture<Totals> read(Path source, Executor executor,
+            Supplier<ChunkParser> parser) {
+        CompletableFuture<Totals> result = new CompletableFuture<>();
+        AsynchronousFileChannel channel;
+        try {
+            channel = AsynchronousFileChannel.open(source, StandardOpenOption.READ);
+        } catch (IOException e) {
+            result.completeExceptionally(e);
+            return result;
+        }
+        result.whenComplete((totals, error) -> close(channel));
+        new ReadLoop(channel, executor, result, bufferPool, parser.get()).readNext();
+        return result;
+    }
+
+    /**
+     * Same as {@code first.thenCompose(next)}, but cancelling the returned
+     * future also cancels the stage in flight, so a read loop started by
+     * {@code next} stops after its task in flight too.
+     */
+    static <T, U> CompletableFuture<U> thenComposeCancellable(CompletableFuture<T> first,
+            Function<? super T, ? extends CompletableFuture<U>> next) {
+        AtomicReference<CompletableFuture<?>> inFlight = new AtomicReference<>(first);
+        CompletableFuture<U> result = new CompletableFuture<>();
+        first.thenCompose(value -> {
+            CompletableFuture<U> stage = next.apply(value);
+            inFlight.set(stage);
+            if (result.isCancelled()) {
+                stage.cancel(false);
+            }
+            return stage;
+        }).whenComplete((value, error) -> {
+            if (error == null) {
+                result.complete(value);
+            } else {
+                result.completeExceptionally(error);
+            }
+        });
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                inFlight.get().cancel(false);
+            }
+        });
+        return result;
+    }
+
+    private static void close(AsynchronousFileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Nothing is written through the channel, so closing can't lose data
+        }
+    }
+
+    private static final class ReadLoop implements CompletionHandler<Integer, Void> {
+        private final AsynchronousFileChannel channel;
+        private final Executor executor;
+        private final CompletableFuture<Totals> result;
+        private final ByteBufferPool bufferPool;
+        private final ByteBuffer buffer;
+        private final ChunkParser parser;
+        private final AtomicBoolean stopped = new AtomicBoolean();
+        private long position;
+        private long readStart;
+        private long readNanos;
+
+        private ReadLoop(AsynchronousFileChannel channel, Executor executor,
+                CompletableFuture<Totals> result, ByteBufferPool bufferPool,
+                ChunkParser parser) {
+            this.channel = channel;
+            this.executor = executor;
+            this.result = result;
+            this.bufferPool = bufferPool;
+            this.parser = parser;
+            this.buffer = bufferPool.acquire();
+        }
+
+        void readNext() {
+            if (result.isDone()) {
+                stop();
+                return;
+            }
+            readStart = System.nanoTime();
+            try {
+                channel.read(buffer, position, null, this);
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+                stop();
+            }
+        }
+
+        @Override
+        public void completed(Integer read, Void attachment) {
+            readNanos += System.nanoTime() - readStart;
+            try {
+                executor.execute(() -> parseAndContinue(read));
+            } catch (RejectedExecutionException e) {
+                result.completeExceptionally(e);
+                stop();
+            }
+        }
+
+        @Override
+        public void failed(Throwable error, Void attachment) {
+            result.completeExceptionally(error);
+            stop();
+        }
+
+        private void parseAndContinue(int read) {
+            if (result.isDone()) {
+                stop();
+                return;
+            }
+            try {
+                parser.parse(buffer, read < 0);
+                if (read < 0) {
+                    Totals totals = parser.finish();
+                    totals.readNanos += readNanos;
+                    stop();
+                    result.complete(totals);
+                    return;
+                }
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+                stop();
+                return;
+            }
+            position += read;
+            readNext();
+        }
+
+        /**
+         * Returns the buffer to the pool and closes the parser once the loop
+         * has ended; no read is pending at any of the call sites.
+         */
+        private void stop() {
+            if (stopped.compareAndSet(false, true)) {
+                parser.close();
+                bufferPool.release(buffer);
+            }
+        }
+    }
+
+    /**
+     * Feeds every chunk into a {@link TotalsParser}, which keeps incomplete
+     * lines itself.
+     */
+    private static final class ByteLevelParser implements ChunkParser {
+        private final Totals totals = new Totals();
+        private final TotalsParser parser = new TotalsParser(totals);
+
+        @Override
+        public void parse(ByteBuffer buffer, boolean endOfInput) {
+            parser.parse(buffer, 0, buffer.position());
+            buffer.clear();
+        }
+
+        @Override
+        public Totals finish() {
+            parser.finish();
+            return totals;
+        }
+    }
+}
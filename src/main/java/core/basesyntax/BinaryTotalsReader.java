@@ -0,0 +1,127 @@
+package core.basesyntax;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Aggregates a file in the {@link BinaryTransactionFormat}. There is no text
+ * to parse: every record is an operation byte and a varint, so the loop is
+ * bound by how fast the file can be read. The record count and the CRC32C in
+ * the header are checked, and a damaged file is rejected rather than summed.
+ */
+class BinaryTotalsReader implements TotalsReader {
+    private final ByteBufferPool bufferPool;
+
+    BinaryTotalsReader() {
+        this(ByteBufferPool.getDefault());
+    }
+
+    BinaryTotalsReader(ByteBufferPool bufferPool) {
+        this.bufferPool = bufferPool;
+    }
+
+    @Override
+    public Totals read(Path source) throws IOException {
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(BinaryTransactionFormat.HEADER_SIZE);
+            while (header.hasRemaining()) {
+                if (channel.read(header) == -1) {
+                    throw new IOException("Binary transaction file has no complete header");
+                }
+            }
+            BinaryTransactionFormat.checkHeader(header);
+            Totals totals = new Totals();
+            totals.bytes = BinaryTransactionFormat.HEADER_SIZE;
+            ByteBuffer buffer = bufferPool.acquire();
+            try {
+                readRecords(channel, buffer, BinaryTransactionFormat.getRecordCount(header),
+                        BinaryTransactionFormat.getChecksum(header), totals);
+            } finally {
+                bufferPool.release(buffer);
+            }
+            return totals;
+        }
+    }
+
+    private void readRecords(FileChannel channel, ByteBuffer buffer, long recordCount,
+            int expectedChecksum, Totals totals) throws IOException {
+        CRC32C checksum = new CRC32C();
+        long remainingRecords = recordCount;
+        boolean endOfFile = false;
+        while (!endOfFile) {
+            int before = buffer.position();
+            long readStart = System.nanoTime();
+            endOfFile = channel.read(buffer) == -1;
+            long parseStart = System.nanoTime();
+            totals.readNanos += parseStart - readStart;
+            checksum.update(buffer.duplicate().flip().position(before));
+            totals.bytes += buffer.position() - before;
+            buffer.flip();
+            int decodeEnd = endOfFile
+                    ? buffer.limit()
+                    : buffer.limit() - BinaryTransactionFormat.MAX_RECORD_SIZE;
+            remainingRecords -= decodeRecords(buffer, decodeEnd, remainingRecords, totals);
+            if (remainingRecords == 0 && buffer.hasRemaining()) {
+                throw new IOException("Binary transaction file has more records than "
+                        + recordCount);
+            }
+            buffer.compact();
+            totals.parseNanos += System.nanoTime() - parseStart;
+        }
+        if (remainingRecords != 0) {
+            throw new IOException("Binary transaction file is missing "
+                    + remainingRecords + " records");
+        }
+        if ((int) checksum.getValue() != expectedChecksum) {
+            throw new IOException("Binary transaction file checksum does not match");
+        }
+        totals.lines = recordCount;
+    }
+
+    /**
+     * Adds up to {@code maxRecords} records that start before {@code end} and
+     * moves the buffer's position past them.
+     *
+     * @return The number of records added.
+     */
+    private static long decodeRecords(ByteBuffer buffer, int end, long maxRecords,
+            Totals totals) throws IOException {
+        int position = buffer.position();
+        int limit = buffer.limit();
+        long records = 0;
+        int supply = totals.supply;
+        int buy = totals.buy;
+        while (position < end && records < maxRecords) {
+            byte operation = buffer.get(position++);
+            int zigzag = 0;
+            int shift = 0;
+            byte current;
+            do {
+                if (position == limit || shift > BinaryTransactionFormat.MAX_VARINT_SHIFT) {
+                    throw new IOException("Binary transaction file has a corrupt amount");
+                }
+                current = buffer.get(position++);
+                zigzag |= (current & BinaryTransactionFormat.VARINT_PAYLOAD_MASK) << shift;
+                shift += BinaryTransactionFormat.VARINT_PAYLOAD_BITS;
+            } while (current < 0);
+            int amount = (zigzag >>> 1) ^ -(zigzag & 1);
+            if (operation == BinaryTransactionFormat.SUPPLY) {
+                supply += amount;
+            } else if (operation == BinaryTransactionFormat.BUY) {
+                buy += amount;
+            } else {
+                throw new IOException("Binary transaction file has an unknown operation "
+                        + operation);
+            }
+            records++;
+        }
+        totals.supply = supply;
+        totals.buy = buy;
+        buffer.position(position);
+        return records;
+    }
+}
@@ -0,0 +1,121 @@
+package core.basesyntax;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Converts a supply/buy CSV file into the {@link BinaryTransactionFormat}.
+ * The CSV is parsed once by {@link TotalsParser}, which hands every counted
+ * record to this converter; skipped lines and unknown operations are left
+ * out, because they never change the totals.
+ *
+ * <p>Like {@link AsciiTotalsReader}, the conversion decodes the CSV instead
+ * when the charset is not ASCII-transparent or when the byte-level pass
+ * skipped an amount with non-ASCII bytes, so a binary file always has the
+ * same totals as its CSV source.
+ *
+ * <p>Instances are not thread-safe and convert one file.
+ */
+class BinaryTransactionConverter implements RecordListener {
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+    private final CRC32C checksum = new CRC32C();
+    private final ByteBufferPool bufferPool;
+    private final DecodingTotalsReader decodingReader;
+    private FileChannel output;
+    private long recordCount;
+
+    BinaryTransactionConverter() {
+        this(ByteBufferPool.getDefault(), new DecodingTotalsReader(Charset.defaultCharset()));
+    }
+
+    BinaryTransactionConverter(ByteBufferPool bufferPool, DecodingTotalsReader decodingReader) {
+        this.bufferPool = bufferPool;
+        this.decodingReader = decodingReader;
+    }
+
+    /**
+     * Writes the records of the CSV file to the binary file, replacing it.
+     *
+     * @return The number of records written.
+     */
+    long convert(Path csvSource, Path binaryTarget) throws IOException {
+        try (FileChannel input = FileChannel.open(csvSource, StandardOpenOption.READ);
+                FileChannel target = FileChannel.open(binaryTarget, StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            output = target;
+            output.position(BinaryTransactionFormat.HEADER_SIZE);
+            Totals totals = new Totals();
+            if (decodingReader.isAsciiTransparent()) {
+                BufferedTotalsReader.parseChannel(input,
+                        new TotalsParser(totals, DelimiterScanners.preferred(), this),
+                        bufferPool);
+            }
+            if (!decodingReader.isAsciiTransparent() || totals.nonAsciiAmounts > 0) {
+                restart();
+                decodingReader.read(csvSource, this);
+            }
+            flush();
+            writeFully(BinaryTransactionFormat.createHeader(recordCount,
+                    (int) checksum.getValue()), 0);
+            return recordCount;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Override
+    public void onSupply(int amount) {
+        append(BinaryTransactionFormat.SUPPLY, amount);
+    }
+
+    @Override
+    public void onBuy(int amount) {
+        append(BinaryTransactionFormat.BUY, amount);
+    }
+
+    private void append(byte operation, int amount) {
+        if (buffer.remaining() < BinaryTransactionFormat.MAX_RECORD_SIZE) {
+            try {
+                flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        BinaryTransactionFormat.putRecord(buffer, operation, amount);
+        recordCount++;
+    }
+
+    /**
+     * Drops the records written so far.
+     */
+    private void restart() throws IOException {
+        buffer.clear();
+        checksum.reset();
+        recordCount = 0;
+        output.truncate(BinaryTransactionFormat.HEADER_SIZE);
+        output.position(BinaryTransactionFormat.HEADER_SIZE);
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        checksum.update(buffer.duplicate());
+        while (buffer.hasRemaining()) {
+            output.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void writeFully(ByteBuffer bytes, long position) throws IOException {
+        while (bytes.hasRemaining()) {
+            position += output.write(bytes, position);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package core.basesyntax;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Layout of the compact binary transaction file written by
+ * {@link BinaryTransactionConverter} and read by {@link BinaryTotalsReader}.
+ *
+ * <p>The file starts with a fixed header: the magic bytes "WWFB", a format
+ * version, three reserved zero bytes, the number of records as a long and the
+ * CRC32C of everything after the header as an int. Each record that follows
+ * is one operation byte and the amount as a zigzag-encoded varint, so most
+ * records take two or three bytes instead of a text line.
+ */
+final class BinaryTransactionFormat {
+    static final byte[] MAGIC = {'W', 'W', 'F', 'B'};
+    static final byte VERSION = 1;
+    static final int HEADER_SIZE = 20;
+    static final byte SUPPLY = 0;
+    static final byte BUY = 1;
+    /** One operation byte and at most five varint bytes for an int. */
+    static final int MAX_RECORD_SIZE = 6;
+
+    private static final int VERSION_OFFSET = 4;
+    private static final int RECORD_COUNT_OFFSET = 8;
+    private static final int CHECKSUM_OFFSET = 16;
+    static final int VARINT_PAYLOAD_BITS = 7;
+    static final int VARINT_PAYLOAD_MASK = 0x7F;
+    static final int MAX_VARINT_SHIFT = 28;
+    private static final int VARINT_CONTINUATION = 0x80;
+
+    private BinaryTransactionFormat() {
+    }
+
+    /**
+     * Returns a header for a body of the given record count and checksum,
+     * ready to be written.
+     */
+    static ByteBuffer createHeader(long recordCount, int checksum) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.put(MAGIC).put(VERSION_OFFSET, VERSION)
+                .putLong(RECORD_COUNT_OFFSET, recordCount)
+                .putInt(CHECKSUM_OFFSET, checksum);
+        return header.clear();
+    }
+
+    /**
+     * Checks the magic bytes and the version of a complete header.
+     *
+     * @throws IOException If the header does not belong to this format.
+     */
+    static void checkHeader(ByteBuffer header) throws IOException {
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (header.get(i) != MAGIC[i]) {
+                throw new IOException("Not a binary transaction file");
+            }
+        }
+        if (header.get(VERSION_OFFSET) != VERSION) {
+            throw new IOException("Unsupported binary transaction file version "
+                    + header.get(VERSION_OFFSET));
+        }
+    }
+
+    static long getRecordCount(ByteBuffer header) {
+        return header.getLong(RECORD_COUNT_OFFSET);
+    }
+
+    static int getChecksum(ByteBuffer header) {
+        return header.getInt(CHECKSUM_OFFSET);
+    }
+
+    /**
+     * Appends one record at the buffer's position, which needs room for
+     * {@link #MAX_RECORD_SIZE} bytes.
+     */
+    static void putRecord(ByteBuffer buffer, byte operation, int amount) {
+        buffer.put(operation);
+        int zigzag = (amount << 1) ^ (amount >> (Integer.SIZE - 1));
+        while ((zigzag & ~VARINT_PAYLOAD_MASK) != 0) {
+            buffer.put((byte) ((zigzag & VARINT_PAYLOAD_MASK) | VARINT_CONTINUATION));
+            zigzag >>>= VARINT_PAYLOAD_BITS;
+        }
+        buffer.put((byte) zigzag);
+    }
+}
@@ -0,0 +1,134 @@
+package core.basesyntax;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The sidecar file that {@link IndexedTotalsReader} keeps next to a source:
+ * for every line-aligned block of the source its byte range, a 64-bit content
+ * hash and the supply and buy sums of its lines.
+ *
+ * <p>The sidecar is only a hint. Every block is checked against the current
+ * content before its sums are reused, so a stale, foreign or damaged sidecar
+ * costs a re-parse and never a wrong report.
+ */
+final class BlockIndex {
+    static final String SIDECAR_EXTENSION = ".blocks";
+
+    private static final int MAGIC = 0x57574649;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = Integer.BYTES * 3;
+    private static final int BLOCK_SIZE = Long.BYTES * 3 + Integer.BYTES * 2;
+    private static final String TEMPORARY_EXTENSION = ".tmp";
+
+    private final Map<Long, Block> blocksByStart;
+
+    BlockIndex(List<Block> blocks) {
+        blocksByStart = new HashMap<>();
+        for (Block block : blocks) {
+            blocksByStart.put(block.start, block);
+        }
+    }
+
+    static Path sidecarOf(Path source) {
+        return source.resolveSibling(source.getFileName() + SIDECAR_EXTENSION);
+    }
+
+    /**
+     * Returns the stored block that starts at the given position, or
+     * {@code null} if there is none.
+     */
+    Block blockAt(long start) {
+        return blocksByStart.get(start);
+    }
+
+    int size() {
+        return blocksByStart.size();
+    }
+
+    /**
+     * Loads the sidecar, or returns an empty index if it is missing, can't be
+     * read or isn't readable as one. Every block is then parsed again, so a
+     * broken sidecar costs time but never fails a read.
+     */
+    static BlockIndex load(Path sidecar) {
+        ByteBuffer content;
+        try {
+            content = ByteBuffer.wrap(Files.readAllBytes(sidecar));
+        } catch (IOException e) {
+            return new BlockIndex(Collections.emptyList());
+        }
+        if (content.remaining() < HEADER_SIZE || content.getInt() != MAGIC
+                || content.getInt() != VERSION) {
+            return new BlockIndex(Collections.emptyList());
+        }
+        int count = content.getInt();
+        if (count < 0 || content.remaining() != (long) count * BLOCK_SIZE) {
+            return new BlockIndex(Collections.emptyList());
+        }
+        List<Block> blocks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            blocks.add(new Block(content.getLong(), content.getLong(), content.getLong(),
+                    content.getInt(), content.getInt()));
+        }
+        return new BlockIndex(blocks);
+    }
+
+    /**
+     * Replaces the sidecar with the given blocks. The content is written to a
+     * temporary file first, so readers never see half of it, and the
+     * temporary file is deleted if it can't replace the sidecar.
+     */
+    static void save(Path sidecar, List<Block> blocks) throws IOException {
+        ByteBuffer content = ByteBuffer.allocate(HEADER_SIZE + blocks.size() * BLOCK_SIZE);
+        content.putInt(MAGIC).putInt(VERSION).putInt(blocks.size());
+        for (Block block : blocks) {
+            content.putLong(block.start).putLong(block.end).putLong(block.hash)
+                    .putInt(block.supply).putInt(block.buy);
+        }
+        content.flip();
+        Path temporary = Files.createTempFile(sidecar.toAbsolutePath().getParent(),
+                sidecar.getFileName().toString(), TEMPORARY_EXTENSION);
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                while (content.hasRemaining()) {
+                    channel.write(content);
+                }
+            }
+            Files.move(temporary, sidecar, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * One line-aligned byte range {@code [start, end)} of the source.
+     */
+    static final class Block {
+        final long start;
+        final long end;
+        final long hash;
+        final int supply;
+        final int buy;
+
+        Block(long start, long end, long hash, int supply, int buy) {
+            this.start = start;
+            this.end = end;
+            this.hash = hash;
+            this.supply = supply;
+            this.buy = buy;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package core.basesyntax;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads the source sequentially through one buffer borrowed from a
+ * {@link ByteBufferPool} for the whole file. The same loop serves files and
+ * arbitrary byte channels.
+ */
+class BufferedTotalsReader implements TotalsReader {
+    private final ByteBufferPool bufferPool;
+
+    BufferedTotalsReader() {
+        this(ByteBufferPool.getDefault());
+    }
+
+    BufferedTotalsReader(ByteBufferPool bufferPool) {
+        this.bufferPool = bufferPool;
+    }
+
+    @Override
+    public Totals read(Path source) throws IOException {
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            return read(channel);
+        }
+    }
+
+    /**
+     * Reads the channel up to its end. The channel is not closed.
+     */
+    Totals read(ReadableByteChannel channel) throws IOException {
+        Totals totals = new Totals();
+        parseChannel(channel, new TotalsParser(totals), bufferPool);
+        return totals;
+    }
+
+    /**
+     * Feeds the channel up to its end into the parser and finishes the last
+     * line. The channel is not closed.
+     */
+    static void parseChannel(ReadableByteChannel channel, TotalsParser parser,
+            ByteBufferPool bufferPool) throws IOException {
+        ByteBuffer buffer = bufferPool.acquire();
+        try {
+            long start = System.nanoTime();
+            while (channel.read(buffer) != -1) {
+                parser.addReadNanos(System.nanoTime() - start);
+                parser.parse(buffer, 0, buffer.position());
+                buffer.clear();
+                start = System.nanoTime();
+            }
+        } finally {
+            bufferPool.release(buffer);
+        }
+        parser.finish();
+    }
+
+    /**
+     * Feeds the bytes between the file positions {@code from} (inclusive) and
+     * {@code to} (exclusive) into the parser using positional reads, so the
+     * channel may be shared between threads.
+     */
+    static void parseRange(FileChannel channel, long from, long to, TotalsParser parser,
+            ByteBufferPool bufferPool) throws IOException {
+        ByteBuffer buffer = bufferPool.acquire();
+        try {
+            long position = from;
+            while (position < to) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), to - position));
+                long start = System.nanoTime();
+                int read = channel.read(buffer, position);
+                parser.addReadNanos(System.nanoTime() - start);
+                if (read < 0) {
+                    break;
+                }
+                parser.parse(buffer, 0, read);
+                position += read;
+            }
+        } finally {
+            bufferPool.release(buffer);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package core.basesyntax;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded pool of direct read buffers shared by the read paths of
+ * {@link WorkWithFile}, so repeated calls on any thread reuse the same
+ * buffers instead of allocating new ones.
+ *
+ * <p>The pool allocates up to {@code maxBuffers} direct buffers on demand.
+ * When all of them are borrowed, a borrower gets a temporary heap buffer
+ * instead of waiting, and the pool counts an exhaustion, both here and in
+ * {@link StatisticMetrics}. Temporary buffers are dropped when they are
+ * returned. A steadily growing exhaustion count means the pool is too small
+ * for the concurrency it serves.
+ *
+ * <p>Instances are thread-safe.
+ */
+public final class ByteBufferPool {
+    public static final int DEFAULT_MAX_BUFFERS = 64;
+    public static final int DEFAULT_BUFFER_CAPACITY = 64 * 1024;
+    /** Leaves room for a few records of the binary format per buffer. */
+    public static final int MIN_BUFFER_CAPACITY = 64;
+
+    private static final ByteBufferPool DEFAULT_POOL =
+            new ByteBufferPool(DEFAULT_MAX_BUFFERS, DEFAULT_BUFFER_CAPACITY);
+
+    private final int maxBuffers;
+    private final int bufferCapacity;
+    private final BlockingQueue<ByteBuffer> idleBuffers;
+    private final AtomicInteger allocatedBuffers = new AtomicInteger();
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder exhaustions = new LongAdder();
+
+    /**
+     * Creates a pool of at most {@code maxBuffers} direct buffers of the given
+     * capacity.
+     *
+     * @param maxBuffers     The maximum number of pooled buffers.
+     * @param bufferCapacity The capacity of every buffer in bytes, at least
+     *                       {@value #MIN_BUFFER_CAPACITY}.
+     */
+    public ByteBufferPool(int maxBuffers, int bufferCapacity) {
+        if (maxBuffers < 1) {
+            throw new IllegalArgumentException("Max buffers must be positive, but was "
+                    + maxBuffers);
+        }
+        if (bufferCapacity < MIN_BUFFER_CAPACITY) {
+            throw new IllegalArgumentException("Buffer capacity must be at least "
+                    + MIN_BUFFER_CAPACITY + ", but was " + bufferCapacity);
+        }
+        this.maxBuffers = maxBuffers;
+        this.bufferCapacity = bufferCapacity;
+        this.idleBuffers = new ArrayBlockingQueue<>(maxBuffers);
+    }
+
+    /**
+     * Returns the pool used by instances of {@link WorkWithFile} that were not
+     * given one: {@value #DEFAULT_MAX_BUFFERS} buffers of
+     * {@value #DEFAULT_BUFFER_CAPACITY} bytes.
+     */
+    public static ByteBufferPool getDefault() {
+        return DEFAULT_POOL;
+    }
+
+    public int getMaxBuffers() {
+        return maxBuffers;
+    }
+
+    public int getBufferCapacity() {
+        return bufferCapacity;
+    }
+
+    public int getIdleBuffers() {
+        return idleBuffers.size();
+    }
+
+    public long getAcquisitions() {
+        return acquisitions.sum();
+    }
+
+    /**
+     * Returns how often a borrower got a temporary buffer because all pooled
+     * buffers were borrowed.
+     */
+    public long getExhaustions() {
+        return exhaustions.sum();
+    }
+
+    /**
+     * Borrows a cleared buffer, which must be given back with
+     * {@link #release} once no read into it is pending.
+     */
+    ByteBuffer acquire() {
+        acquisitions.increment();
+        ByteBuffer buffer = idleBuffers.poll();
+        if (buffer != null) {
+            return buffer.clear();
+        }
+        if (allocatedBuffers.incrementAndGet() <= maxBuffers) {
+            return ByteBuffer.allocateDirect(bufferCapacity);
+        }
+        allocatedBuffers.decrementAndGet();
+        exhaustions.increment();
+        StatisticMetrics.getInstance().countBufferPoolExhaustion();
+        return ByteBuffer.allocate(bufferCapacity);
+    }
+
+    /**
+     * Gives a borrowed buffer back. Temporary buffers are dropped.
+     */
+    void release(ByteBuffer buffer) {
+        if (buffer.isDirect() && buffer.capacity() == bufferCapacity) {
+            idleBuffers.offer(buffer);
+        }
+    }
+}
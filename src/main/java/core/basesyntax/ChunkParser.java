@@ -0,0 +1,30 @@
+package core.basesyntax;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Calculates {@link Totals} from a source that a reader hands over chunk by
+ * chunk in one buffer, so the reader decides how and on which thread the
+ * buffer is filled. Instances are not thread-safe and must be closed to
+ * return any buffer they borrowed.
+ */
+interface ChunkParser extends AutoCloseable {
+    /**
+     * Consumes the bytes before the buffer's position and leaves the buffer
+     * ready for the next read, with any bytes it could not consume yet moved
+     * to its start.
+     *
+     * @param buffer     The buffer the reader filled.
+     * @param endOfInput Whether no more bytes follow.
+     */
+    void parse(ByteBuffer buffer, boolean endOfInput);
+
+    /**
+     * Returns the totals once the last chunk was parsed.
+     */
+    Totals finish();
+
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,297 @@
+package core.basesyntax;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads the source through a charset decoder, line by line, the way the
+ * original {@code FileReader}/{@code readLine()}/{@code split(",")} pipeline
+ * did. It is much slower than the byte-level readers and only used where
+ * they cannot give the decoded result on their own; see
+ * {@link AsciiTotalsReader}.
+ *
+ * <p>The bytes and the decoded chars are held in buffers borrowed from a
+ * {@link ByteBufferPool}, so a call allocates no buffers of its own.
+ *
+ * <p>Malformed input is replaced like {@code FileReader} does, and amounts
+ * may use the decimal digits of any script, like {@code Integer.parseInt}
+ * accepts. A source whose name ends with ".gz" is decompressed first. Like
+ * {@link TotalsParser}, it can hand every counted record to a
+ * {@link RecordListener}, so a conversion can fall back to it too.
+ */
+class DecodingTotalsReader implements TotalsReader {
+    private static final String GZIP_EXTENSION = ".gz";
+    private static final String CSV_DELIMITER = ",";
+    private static final String SUPPLY_OPERATION = "supply";
+    private static final String BUY_OPERATION = "buy";
+    private static final String RESULT_OPERATION = "result";
+    private static final char LINE_FEED = '\n';
+    private static final char CARRIAGE_RETURN = '\r';
+    private static final int AMOUNT_FIELD = 1;
+    private static final int FIELD_COUNT = 2;
+    private static final int BYTE_VALUES = 256;
+    private static final int ASCII_VALUES = 128;
+
+    private final Charset charset;
+    private final boolean byOperation;
+    private final boolean asciiTransparent;
+    private final ByteBufferPool bufferPool;
+
+    DecodingTotalsReader(Charset charset) {
+        this(charset, false, ByteBufferPool.getDefault());
+    }
+
+    /**
+     * Creates a reader for the given charset.
+     *
+     * @param charset     The charset of the sources.
+     * @param byOperation Whether to also sum every operation other than
+     *                    "supply" and "buy" into {@link Totals#operations}.
+     * @param bufferPool  The pool the read and decode buffers are borrowed
+     *                    from.
+     */
+    DecodingTotalsReader(Charset charset, boolean byOperation, ByteBufferPool bufferPool) {
+        this.charset = charset;
+        this.byOperation = byOperation;
+        this.asciiTransparent = isAsciiTransparent(charset);
+        this.bufferPool = bufferPool;
+    }
+
+    /**
+     * Returns whether the charset decodes every ASCII byte to the same
+     * character and every other byte to a character outside ASCII. Only then
+     * do the delimiters, line terminators, signs and ASCII digits the
+     * byte-level parsers look for mean the same as in the decoded text. This
+     * holds for UTF-8 and the single-byte charsets, but not for UTF-16 or the
+     * multi-byte East Asian charsets.
+     */
+    static boolean isAsciiTransparent(Charset charset) {
+        byte[] bytes = new byte[BYTE_VALUES];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) i;
+        }
+        String text = new String(bytes, charset);
+        if (text.length() != bytes.length) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            char decoded = text.charAt(i);
+            if (i < ASCII_VALUES ? decoded != i : decoded < ASCII_VALUES) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether the byte-level readers give the decoded result for
+     * this charset, as long as they count no {@link Totals#nonAsciiAmounts}.
+     */
+    boolean isAsciiTransparent() {
+        return asciiTransparent;
+    }
+
+    @Override
+    public Totals read(Path source) throws IOException {
+        return read(source, null);
+    }
+
+    /**
+     * Same as {@link #read(Path)}, but also hands every counted "supply" and
+     * "buy" record to the listener, if it isn't null.
+     */
+    Totals read(Path source, RecordListener listener) throws IOException {
+        boolean compressed = source.toString().endsWith(GZIP_EXTENSION);
+        try (ReadableByteChannel channel = compressed
+                ? Channels.newChannel(new GZIPInputStream(Files.newInputStream(source)))
+                : FileChannel.open(source, StandardOpenOption.READ)) {
+            Totals totals = read(channel, listener);
+            totals.bytes = Files.size(source);
+            return totals;
+        }
+    }
+
+    /**
+     * Decodes the channel up to its end. The channel is not closed.
+     */
+    Totals read(ReadableByteChannel channel) throws IOException {
+        return read(channel, null);
+    }
+
+    private Totals read(ReadableByteChannel channel, RecordListener listener)
+            throws IOException {
+        ByteBuffer bytes = bufferPool.acquire();
+        try (Decoding decoding = new Decoding(listener)) {
+            long readNanos = 0;
+            boolean endOfInput;
+            do {
+                long start = System.nanoTime();
+                endOfInput = channel.read(bytes) == -1;
+                readNanos += System.nanoTime() - start;
+                decoding.parse(bytes, endOfInput);
+            } while (!endOfInput);
+            Totals totals = decoding.finish();
+            totals.readNanos = readNanos;
+            return totals;
+        } finally {
+            bufferPool.release(bytes.clear());
+        }
+    }
+
+    /**
+     * Returns a parser that decodes a source handed over in chunks, like
+     * {@link #read(Path)} decodes a file.
+     */
+    ChunkParser newDecoding() {
+        return new Decoding(null);
+    }
+
+    /**
+     * Adds the amount of a line to the totals if the line is well formed.
+     *
+     * @return Why the line was skipped, or {@code null} if it was counted.
+     */
+    private SkipReason parseLine(String line, Totals totals, RecordListener listener) {
+        String[] parts = line.split(CSV_DELIMITER);
+        if (parts.length != FIELD_COUNT) {
+            return SkipReason.WRONG_FIELD_COUNT;
+        }
+        long amount = AmountParser.parse(parts[AMOUNT_FIELD]);
+        if (!AmountParser.isAmount(amount)) {
+            return AmountParser.toSkipReason(amount);
+        }
+        String operation = parts[0];
+        if (SUPPLY_OPERATION.equals(operation)) {
+            totals.supply += (int) amount;
+            if (listener != null) {
+                listener.onSupply((int) amount);
+            }
+        } else if (BUY_OPERATION.equals(operation)) {
+            totals.buy += (int) amount;
+            if (listener != null) {
+                listener.onBuy((int) amount);
+            }
+        } else if (byOperation && !operation.isEmpty()
+                && !RESULT_OPERATION.equals(operation)) {
+            ByteBuffer key = charset.encode(operation);
+            totals.operations.add(key, 0, key.limit(), (int) amount);
+        } else {
+            return SkipReason.UNKNOWN_OPERATION;
+        }
+        return null;
+    }
+
+    /**
+     * Decodes the chunks of one source into lines. The decoded chars are held
+     * in a buffer borrowed from the pool until the parser is closed.
+     */
+    private final class Decoding implements ChunkParser {
+        private final Totals totals = new Totals();
+        private final CharsetDecoder decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private final LineSplitter lines;
+        private final ByteBuffer charBytes = bufferPool.acquire();
+        private final CharBuffer chars = charBytes.clear().asCharBuffer();
+        private int pendingBytes;
+
+        private Decoding(RecordListener listener) {
+            if (byOperation) {
+                totals.operations = new OperationTotals();
+            }
+            lines = new LineSplitter(totals, listener);
+        }
+
+        @Override
+        public void parse(ByteBuffer bytes, boolean endOfInput) {
+            long start = System.nanoTime();
+            totals.bytes += bytes.position() - pendingBytes;
+            bytes.flip();
+            CoderResult result;
+            do {
+                result = decoder.decode(bytes, chars, endOfInput);
+                lines.accept(chars);
+            } while (result.isOverflow());
+            bytes.compact();
+            pendingBytes = bytes.position();
+            totals.parseNanos += System.nanoTime() - start;
+        }
+
+        @Override
+        public Totals finish() {
+            long start = System.nanoTime();
+            while (decoder.flush(chars).isOverflow()) {
+                lines.accept(chars);
+            }
+            lines.accept(chars);
+            lines.finish();
+            totals.parseNanos += System.nanoTime() - start;
+            return totals;
+        }
+
+        @Override
+        public void close() {
+            bufferPool.release(charBytes.clear());
+        }
+    }
+
+    /**
+     * Splits decoded chars into lines like {@code BufferedReader.readLine()}
+     * does: a line ends at "\n", "\r" or "\r\n", and a last line without a
+     * terminator counts unless it is empty.
+     */
+    private final class LineSplitter {
+        private final Totals totals;
+        private final RecordListener listener;
+        private final StringBuilder line = new StringBuilder();
+        private boolean afterCarriageReturn;
+
+        private LineSplitter(Totals totals, RecordListener listener) {
+            this.totals = totals;
+            this.listener = listener;
+        }
+
+        /**
+         * Consumes the decoded chars and clears the buffer for more.
+         */
+        void accept(CharBuffer chars) {
+            chars.flip();
+            while (chars.hasRemaining()) {
+                char current = chars.get();
+                if (current == LINE_FEED && afterCarriageReturn) {
+                    afterCarriageReturn = false;
+                } else if (current == LINE_FEED || current == CARRIAGE_RETURN) {
+                    endLine();
+                    afterCarriageReturn = current == CARRIAGE_RETURN;
+                } else {
+                    afterCarriageReturn = false;
+                    line.append(current);
+                }
+            }
+            chars.clear();
+        }
+
+        void finish() {
+            if (line.length() > 0) {
+                endLine();
+            }
+        }
+
+        private void endLine() {
+            totals.countLine(parseLine(line.toString(), totals, listener));
+            line.setLength(0);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package core.basesyntax;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Finds the next field delimiter or line terminator in a byte range.
+ */
+interface DelimiterScanner {
+    /**
+     * Returns the absolute index of the first {@code ','}, {@code '\n'} or
+     * {@code '\r'} in {@code [from, to)} of the buffer, or {@code to} if the
+     * range contains none of them.
+     */
+    int nextDelimiter(ByteBuffer buffer, int from, int to);
+
+    /**
+     * Forgets anything kept about the bytes scanned so far. A parser calls
+     * this before scanning a range, because the content of a buffer may have
+     * changed since the last one.
+     */
+    default void reset() {
+    }
+}
@@ -0,0 +1,50 @@
+package core.basesyntax;
+
+import java.lang.reflect.Constructor;
+
+/**
+ * Chooses the fastest {@link DelimiterScanner} the running JVM supports.
+ */
+final class DelimiterScanners {
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String VECTOR_SCANNER = "core.basesyntax.VectorDelimiterScanner";
+    private static final Constructor<?> VECTOR_CONSTRUCTOR = findVectorConstructor();
+
+    private DelimiterScanners() {
+    }
+
+    /**
+     * Returns a new Vector API scanner when it was built, which only the
+     * benchmark profile does, and the JVM was started with
+     * {@code --add-modules jdk.incubator.vector}, and a scalar one otherwise.
+     * Scanners may keep state between calls, so every parser needs its own.
+     */
+    static DelimiterScanner preferred() {
+        if (VECTOR_CONSTRUCTOR == null) {
+            return scalar();
+        }
+        try {
+            return (DelimiterScanner) VECTOR_CONSTRUCTOR.newInstance();
+        } catch (ReflectiveOperationException e) {
+            return scalar();
+        }
+    }
+
+    static DelimiterScanner scalar() {
+        return new ScalarDelimiterScanner();
+    }
+
+    private static Constructor<?> findVectorConstructor() {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            return null;
+        }
+        try {
+            // Loaded reflectively so this class links without the incubator module
+            Constructor<?> constructor = Class.forName(VECTOR_SCANNER).getDeclaredConstructor();
+            constructor.newInstance();
+            return constructor;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+}
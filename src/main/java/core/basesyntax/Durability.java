@@ -0,0 +1,29 @@
+package core.basesyntax;
+
+/**
+ * Selects how durable a report is once {@link WorkWithFile} has published it.
+ * In every mode a report is written to a temporary file next to the target
+ * and renamed over it, so readers see either the old or the new report and
+ * never a partial one.
+ */
+public enum Durability {
+    /**
+     * Leaves flushing to the operating system. A crash may lose recently
+     * published reports, but never leaves a partial one.
+     */
+    NONE,
+    /**
+     * Syncs the report and then its directory before the call returns, which
+     * costs two syncs per report.
+     */
+    FSYNC,
+    /**
+     * Writes reports to their temporary files and completes them when
+     * {@link WorkWithFile#syncReports()} is called, as {@link StatisticBatch}
+     * does after each batch: every temporary file is synced and renamed, and
+     * then every directory that received reports is synced once. Until then
+     * the old report stays in place. The content of a report is durable
+     * before its rename, so a crash never leaves an empty one.
+     */
+    GROUP_COMMIT
+}
@@ -0,0 +1,28 @@
+package core.basesyntax;
+
+/**
+ * The source and report file names of one {@link WorkWithFile#getStatistic}
+ * call.
+ */
+public final class FilePair {
+    private final String fromFileName;
+    private final String toFileName;
+
+    public FilePair(String fromFileName, String toFileName) {
+        this.fromFileName = fromFileName;
+        this.toFileName = toFileName;
+    }
+
+    public String getFromFileName() {
+        return fromFileName;
+    }
+
+    public String getToFileName() {
+        return toFileName;
+    }
+
+    @Override
+    public String toString() {
+        return fromFileName + " -> " + toFileName;
+    }
+}
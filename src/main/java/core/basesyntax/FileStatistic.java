@@ -0,0 +1,47 @@
+package core.basesyntax;
+
+/**
+ * The outcome of one file of a {@link StatisticBatch}: either the report or the
+ * error that prevented it.
+ */
+public final class FileStatistic {
+    private final FilePair files;
+    private final String report;
+    private final RuntimeException error;
+
+    private FileStatistic(FilePair files, String report, RuntimeException error) {
+        this.files = files;
+        this.report = report;
+        this.error = error;
+    }
+
+    static FileStatistic success(FilePair files, String report) {
+        return new FileStatistic(files, report, null);
+    }
+
+    static FileStatistic failure(FilePair files, RuntimeException error) {
+        return new FileStatistic(files, null, error);
+    }
+
+    public FilePair getFiles() {
+        return files;
+    }
+
+    public boolean isSuccessful() {
+        return error == null;
+    }
+
+    /**
+     * Returns the report, or {@code null} if the file failed.
+     */
+    public String getReport() {
+        return report;
+    }
+
+    /**
+     * Returns the error, or {@code null} if the report was written.
+     */
+    public RuntimeException getError() {
+        return error;
+    }
+}
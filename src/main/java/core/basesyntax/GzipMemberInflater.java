@@ -0,0 +1,226 @@
+package core.basesyntax;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Decompresses consecutive gzip members (RFC 1952) of a file, starting at any
+ * file position. Unlike {@link java.util.zip.GZIPInputStream} it reports the
+ * exact position where every member ends, which lets several threads work on
+ * different members of the same file.
+ *
+ * <p>Uses positional reads only, so one channel can be shared by several
+ * inflaters. The input and output buffers are borrowed from a
+ * {@link ByteBufferPool} and handed to the inflater as they are, so direct
+ * buffers are inflated without copying. Instances are not thread-safe and
+ * must be closed to return the buffers and release the native inflater.
+ */
+class GzipMemberInflater implements AutoCloseable {
+    private static final int MAGIC_FIRST = 0x1f;
+    private static final int MAGIC_SECOND = 0x8b;
+    private static final int DEFLATE = 8;
+    private static final int FLAG_HEADER_CRC = 2;
+    private static final int FLAG_EXTRA = 4;
+    private static final int FLAG_NAME = 8;
+    private static final int FLAG_COMMENT = 16;
+    private static final int RESERVED_FLAGS = 0xe0;
+    private static final int FIXED_HEADER_REST = 6;
+    private static final int HEADER_CRC_SIZE = 2;
+    private static final int BYTE_BITS = 8;
+    private static final int BYTE_MASK = 0xff;
+    private static final int INT_BYTES = 4;
+    private static final long UNSIGNED_INT_MASK = 0xffffffffL;
+
+    private final FileChannel channel;
+    private final ByteBufferPool bufferPool;
+    private final ByteBuffer input;
+    private final ByteBuffer output;
+    private final Inflater inflater = new Inflater(true);
+    private final CRC32 crc = new CRC32();
+    private long inputPosition;
+    private int inputLength;
+    private int inputOffset;
+
+    GzipMemberInflater(FileChannel channel, long position, ByteBufferPool bufferPool) {
+        this.channel = channel;
+        this.inputPosition = position;
+        this.bufferPool = bufferPool;
+        this.input = bufferPool.acquire();
+        this.output = bufferPool.acquire();
+    }
+
+    /**
+     * Returns the file position of the next unread byte; after
+     * {@link #inflateMember} that is where the next member starts.
+     */
+    long position() {
+        return inputPosition + inputOffset;
+    }
+
+    /**
+     * Reads a member header at the current position.
+     *
+     * @return {@code false} if the bytes there are not a gzip header.
+     */
+    boolean readHeader() throws IOException {
+        return readHeader(this::readByte);
+    }
+
+    /**
+     * Reads a member header from the given bytes, so probable headers can be
+     * checked without an inflater.
+     *
+     * @return {@code false} if the bytes are not a gzip header or end before
+     *         the header does.
+     */
+    static boolean readHeader(ByteSource in) throws IOException {
+        if (in.next() != MAGIC_FIRST || in.next() != MAGIC_SECOND || in.next() != DEFLATE) {
+            return false;
+        }
+        int flags = in.next();
+        if (flags < 0 || (flags & RESERVED_FLAGS) != 0 || !skip(in, FIXED_HEADER_REST)) {
+            return false;
+        }
+        if ((flags & FLAG_EXTRA) != 0) {
+            int low = in.next();
+            int high = in.next();
+            if (high < 0 || !skip(in, low | high << BYTE_BITS)) {
+                return false;
+            }
+        }
+        if ((flags & FLAG_NAME) != 0 && !skipZeroTerminated(in)) {
+            return false;
+        }
+        if ((flags & FLAG_COMMENT) != 0 && !skipZeroTerminated(in)) {
+            return false;
+        }
+        return (flags & FLAG_HEADER_CRC) == 0 || skip(in, HEADER_CRC_SIZE);
+    }
+
+    /**
+     * Inflates the member whose header was just read, passes the data to the
+     * sink and checks the CRC and size in the trailer.
+     */
+    void inflateMember(OutputSink sink) throws IOException {
+        inflater.reset();
+        crc.reset();
+        long inflated = 0;
+        while (!inflater.finished()) {
+            if (inflater.needsInput()) {
+                if (!fill()) {
+                    throw new ZipException("Unexpected end of gzip member at " + position());
+                }
+                inflater.setInput(input.limit(inputLength).position(inputOffset));
+                inputOffset = inputLength;
+            }
+            int length = inflate();
+            crc.update(output.flip());
+            inflated += length;
+            sink.accept(output, length);
+        }
+        inputOffset -= inflater.getRemaining();
+        if (readInt() != crc.getValue() || readInt() != (inflated & UNSIGNED_INT_MASK)) {
+            throw new ZipException("Corrupt gzip trailer before " + position());
+        }
+    }
+
+    @Override
+    public void close() {
+        inflater.end();
+        bufferPool.release(input);
+        bufferPool.release(output);
+    }
+
+    private int inflate() throws ZipException {
+        try {
+            int length = inflater.inflate(output.clear());
+            if (length == 0 && inflater.needsDictionary()) {
+                throw new ZipException("Gzip member needs a preset dictionary");
+            }
+            return length;
+        } catch (DataFormatException e) {
+            throw new ZipException("Invalid deflate data: " + e.getMessage());
+        }
+    }
+
+    private long readInt() throws IOException {
+        long value = 0;
+        for (int i = 0; i < INT_BYTES; i++) {
+            int current = readByte();
+            if (current < 0) {
+                throw new ZipException("Unexpected end of gzip trailer at " + position());
+            }
+            value |= (long) current << (BYTE_BITS * i);
+        }
+        return value;
+    }
+
+    private static boolean skipZeroTerminated(ByteSource in) throws IOException {
+        int current;
+        do {
+            current = in.next();
+        } while (current > 0);
+        return current == 0;
+    }
+
+    private static boolean skip(ByteSource in, int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            if (in.next() < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int readByte() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        return input.get(inputOffset++) & BYTE_MASK;
+    }
+
+    /**
+     * Makes sure there is unread input, reading the next block of the file if
+     * needed.
+     *
+     * @return {@code false} at the end of the file.
+     */
+    private boolean fill() throws IOException {
+        if (inputOffset < inputLength) {
+            return true;
+        }
+        inputPosition += inputLength;
+        inputOffset = 0;
+        inputLength = 0;
+        input.clear();
+        int read = channel.read(input, inputPosition);
+        if (read <= 0) {
+            return false;
+        }
+        inputLength = read;
+        return true;
+    }
+
+    /**
+     * Supplies bytes one at a time.
+     */
+    interface ByteSource {
+        /**
+         * Returns the next unsigned byte, or -1 at the end.
+         */
+        int next() throws IOException;
+    }
+
+    /**
+     * Receives the decompressed data of a member at the absolute indexes
+     * {@code [0, length)} of the buffer.
+     */
+    interface OutputSink {
+        void accept(ByteBuffer buffer, int length) throws IOException;
+    }
+}
@@ -0,0 +1,287 @@
+package core.basesyntax;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.zip.ZipException;
+
+/**
+ * Reads gzip-compressed sources.
+ *
+ * <p>A file made of several concatenated gzip members (as written by
+ * {@code bgzip}, {@code pigz --independent} or {@code cat a.gz b.gz}) is split
+ * into ranges that start at a member header, and the ranges are decompressed
+ * and parsed in parallel. Member boundaries can only be guessed from the
+ * compressed bytes, so each range must end exactly where the next one starts;
+ * otherwise the guess was wrong and the file is read sequentially instead.
+ *
+ * <p>Decompressed member boundaries do not have to be line boundaries. Each
+ * range except the first keeps the bytes before its first line feed aside,
+ * and they are fed to the parser of the previous range when the partial
+ * totals are merged, so the result equals that of the uncompressed file.
+ *
+ * <p>All buffers, those searching for headers and those every range inflates
+ * with, are borrowed from a {@link ByteBufferPool}, and the ranges run on a
+ * {@link ForkJoinPool} owned by the caller and shared across reads.
+ */
+class GzipTotalsReader implements TotalsReader {
+    private static final long MIN_RANGE_SIZE = 1L << 20;
+    private static final byte[] MEMBER_MAGIC = {0x1f, (byte) 0x8b, 0x08};
+
+    private final int parallelism;
+    private final long minRangeSize;
+    private final ForkJoinPool pool;
+    private final ByteBufferPool bufferPool;
+
+    GzipTotalsReader(int parallelism, ForkJoinPool pool, ByteBufferPool bufferPool) {
+        this(parallelism, MIN_RANGE_SIZE, pool, bufferPool);
+    }
+
+    GzipTotalsReader(int parallelism, long minRangeSize) {
+        this(parallelism, minRangeSize, ByteBufferPool.getDefault());
+    }
+
+    GzipTotalsReader(int parallelism, long minRangeSize, ByteBufferPool bufferPool) {
+        this(parallelism, minRangeSize, ForkJoinPool.commonPool(), bufferPool);
+    }
+
+    GzipTotalsReader(int parallelism, long minRangeSize, ForkJoinPool pool,
+            ByteBufferPool bufferPool) {
+        this.parallelism = parallelism;
+        this.minRangeSize = minRangeSize;
+        this.pool = pool;
+        this.bufferPool = bufferPool;
+    }
+
+    @Override
+    public Totals read(Path source) throws IOException {
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            long[] bounds = findRangeStarts(channel);
+            if (bounds.length > 2) {
+                Totals totals = readInParallel(channel, bounds);
+                if (totals != null) {
+                    return totals;
+                }
+            }
+            Range whole = new Range(channel, 0, Long.MAX_VALUE, false, bufferPool);
+            whole.call();
+            whole.parser.finish();
+            return whole.totals;
+        }
+    }
+
+    /**
+     * Returns ascending positions of probable member headers, the first being
+     * 0 and the last the file size. Ranges are at least the minimal range
+     * size long.
+     */
+    private long[] findRangeStarts(FileChannel channel) throws IOException {
+        long size = channel.size();
+        int ranges = (int) Math.max(1, Math.min(parallelism, size / minRangeSize));
+        long[] bounds = new long[ranges + 1];
+        int count = 1;
+        ByteBuffer buffer = bufferPool.acquire();
+        try {
+            for (int i = 1; i < ranges; i++) {
+                long start = findMemberHeader(channel, Math.max(bounds[count - 1] + 1,
+                        size / ranges * i), size, buffer);
+                if (start < size) {
+                    bounds[count++] = start;
+                }
+            }
+        } finally {
+            bufferPool.release(buffer);
+        }
+        bounds[count++] = size;
+        return Arrays.copyOf(bounds, count);
+    }
+
+    /**
+     * Returns the position of the first probable member header at or after
+     * {@code from}, or the file size if there is none. Headers are checked in
+     * the search buffer. One that runs past its end is checked again at the
+     * start of the next read; one longer than the whole buffer is passed
+     * over, which only means fewer ranges.
+     */
+    private long findMemberHeader(FileChannel channel, long from, long size,
+            ByteBuffer buffer) throws IOException {
+        HeaderWindow window = new HeaderWindow(buffer);
+        for (long offset = from; offset < size; ) {
+            buffer.clear();
+            int read = channel.read(buffer, offset);
+            if (read < MEMBER_MAGIC.length) {
+                break;
+            }
+            boolean lastRead = offset + read >= size;
+            int next = read - MEMBER_MAGIC.length + 1;
+            for (int i = 0; i < next; i++) {
+                if (buffer.get(i) == MEMBER_MAGIC[0] && buffer.get(i + 1) == MEMBER_MAGIC[1]
+                        && buffer.get(i + 2) == MEMBER_MAGIC[2]) {
+                    if (window.isHeaderAt(i, read)) {
+                        return offset + i;
+                    }
+                    if (window.exhausted && !lastRead && i > 0) {
+                        next = i;
+                        break;
+                    }
+                }
+            }
+            offset += next;
+        }
+        return size;
+    }
+
+    /**
+     * Returns the merged totals, or {@code null} if the guessed member
+     * boundaries turned out to be wrong.
+     */
+    private Totals readInParallel(FileChannel channel, long[] bounds) throws IOException {
+        List<Range> ranges = new ArrayList<>();
+        for (int i = 0; i + 1 < bounds.length; i++) {
+            ranges.add(new Range(channel, bounds[i], bounds[i + 1], i > 0, bufferPool));
+        }
+        try {
+            List<Future<Long>> ends = pool.invokeAll(ranges);
+            for (int i = 0; i < ranges.size(); i++) {
+                // Like GZIPInputStream, anything after the last member is ignored
+                long end = ends.get(i).get();
+                if (end != bounds[i + 1] && i + 1 < ranges.size()) {
+                    return null;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while decompressing in parallel", e);
+        } catch (ExecutionException e) {
+            // A guessed header inside compressed data fails to inflate
+            return null;
+        }
+        return merge(ranges);
+    }
+
+    private Totals merge(List<Range> ranges) {
+        Totals totals = new Totals();
+        Range open = ranges.get(0);
+        for (Range range : ranges.subList(1, ranges.size())) {
+            open.parser.parse(ByteBuffer.wrap(range.head, 0, range.headLength), 0,
+                    range.headLength);
+            if (range.sawLineFeed) {
+                open.parser.finish();
+                totals.add(open.totals);
+                open = range;
+            } else {
+                totals.add(range.totals);
+            }
+        }
+        open.parser.finish();
+        totals.add(open.totals);
+        return totals;
+    }
+
+    /**
+     * Supplies the bytes of the search buffer from a probable header up to
+     * the end of the read, and tells whether the header ran past it.
+     */
+    private static final class HeaderWindow implements GzipMemberInflater.ByteSource {
+        private static final int BYTE_MASK = 0xff;
+
+        private final ByteBuffer buffer;
+        private int index;
+        private int limit;
+        private boolean exhausted;
+
+        private HeaderWindow(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        private boolean isHeaderAt(int from, int to) throws IOException {
+            index = from;
+            limit = to;
+            exhausted = false;
+            return GzipMemberInflater.readHeader(this);
+        }
+
+        @Override
+        public int next() {
+            if (index >= limit) {
+                exhausted = true;
+                return -1;
+            }
+            return buffer.get(index++) & BYTE_MASK;
+        }
+    }
+
+    /**
+     * Decompresses and parses the members that start in {@code [from, to)}.
+     * Returns the position where the last of them ends.
+     */
+    private static final class Range implements Callable<Long> {
+        private static final byte LINE_FEED = '\n';
+        private static final int INITIAL_HEAD_SIZE = 128;
+
+        private final FileChannel channel;
+        private final long from;
+        private final long to;
+        private final ByteBufferPool bufferPool;
+        private final Totals totals = new Totals();
+        private final TotalsParser parser = new TotalsParser(totals);
+        private boolean sawLineFeed;
+        private byte[] head = new byte[INITIAL_HEAD_SIZE];
+        private int headLength;
+
+        private Range(FileChannel channel, long from, long to, boolean keepHead,
+                ByteBufferPool bufferPool) {
+            this.channel = channel;
+            this.from = from;
+            this.to = to;
+            this.bufferPool = bufferPool;
+            this.sawLineFeed = !keepHead;
+        }
+
+        @Override
+        public Long call() throws IOException {
+            try (GzipMemberInflater inflater = new GzipMemberInflater(channel, from,
+                    bufferPool)) {
+                long start = System.nanoTime();
+                long position = from;
+                while (position < to && inflater.readHeader()) {
+                    inflater.inflateMember(this::accept);
+                    position = inflater.position();
+                }
+                if (position == from) {
+                    throw new ZipException("Not in gzip format");
+                }
+                parser.addReadNanos(System.nanoTime() - start - totals.parseNanos);
+                return position;
+            }
+        }
+
+        private void accept(ByteBuffer buffer, int length) {
+            int offset = 0;
+            if (!sawLineFeed) {
+                while (offset < length && !sawLineFeed) {
+                    sawLineFeed = buffer.get(offset++) == LINE_FEED;
+                }
+                appendToHead(buffer, offset);
+            }
+            parser.parse(buffer, offset, length);
+        }
+
+        private void appendToHead(ByteBuffer buffer, int length) {
+            if (headLength + length > head.length) {
+                head = Arrays.copyOf(head, Math.max(head.length * 2, headLength + length));
+            }
+            buffer.get(0, head, headLength, length);
+            headLength += length;
+        }
+    }
+}
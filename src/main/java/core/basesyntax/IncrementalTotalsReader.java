@@ -0,0 +1,182 @@
+package core.basesyntax;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.CRC32C;
+
+/**
+ * Parses only the bytes appended to a source since the previous call.
+ *
+ * <p>For every source the reader remembers a checkpoint: the position right
+ * after the last line feed it has seen and the totals of all lines before it.
+ * The next call continues from there. A last line without a line feed is
+ * counted in the result but not in the checkpoint, because it may still be
+ * growing. If the file was replaced (different file key), shrank below the
+ * checkpoint, or the last {@value #TAIL_SIZE} bytes before the checkpoint no
+ * longer have the same hash, the file was not just appended to and the
+ * totals are recomputed from the start.
+ *
+ * <p>Only that tail is hashed, so an edit in place that keeps the size and
+ * doesn't touch the last {@value #TAIL_SIZE} bytes before the checkpoint
+ * goes unnoticed and the stale totals are kept. Files that may be rewritten
+ * that way must be read in another mode, for example
+ * {@link ReadMode#INDEXED}.
+ *
+ * <p>At most {@code maxCheckpoints} checkpoints are kept, the least recently
+ * used one is dropped first, and the checkpoint of a source that no longer
+ * exists is dropped when it is read, so a long-running process doesn't keep
+ * one for every rotated or deleted file it has seen.
+ */
+class IncrementalTotalsReader implements TotalsReader {
+    private static final int TAIL_SIZE = 4 * 1024;
+    private static final byte LINE_FEED = '\n';
+    private static final int DEFAULT_MAX_CHECKPOINTS = 1024;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final int maxCheckpoints;
+    private final Map<Path, Checkpoint> checkpoints;
+    private final ByteBufferPool bufferPool;
+
+    IncrementalTotalsReader() {
+        this(ByteBufferPool.getDefault());
+    }
+
+    IncrementalTotalsReader(ByteBufferPool bufferPool) {
+        this(bufferPool, DEFAULT_MAX_CHECKPOINTS);
+    }
+
+    IncrementalTotalsReader(ByteBufferPool bufferPool, int maxCheckpoints) {
+        if (maxCheckpoints < 1) {
+            throw new IllegalArgumentException("Max checkpoints must be positive, but was "
+                    + maxCheckpoints);
+        }
+        this.bufferPool = bufferPool;
+        this.maxCheckpoints = maxCheckpoints;
+        this.checkpoints = Collections.synchronizedMap(
+                new LinkedHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<Path, Checkpoint> eldest) {
+                        return size() > IncrementalTotalsReader.this.maxCheckpoints;
+                    }
+                });
+    }
+
+    @Override
+    public Totals read(Path source) throws IOException {
+        Path path = source.toAbsolutePath().normalize();
+        Object fileKey;
+        try {
+            fileKey = Files.readAttributes(path, BasicFileAttributes.class).fileKey();
+        } catch (NoSuchFileException e) {
+            checkpoints.remove(path);
+            throw e;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            Checkpoint checkpoint = checkpoints.get(path);
+            if (checkpoint == null || !isValid(checkpoint, channel, fileKey, size)) {
+                checkpoint = new Checkpoint(fileKey, 0, 0, new Totals());
+            }
+            long lastLineEnd = findLastLineEnd(channel, checkpoint.offset, size);
+            Totals totals = checkpoint.totals.copySums();
+            TotalsParser parser = new TotalsParser(totals);
+            BufferedTotalsReader.parseRange(channel, checkpoint.offset, lastLineEnd, parser,
+                    bufferPool);
+            checkpoints.put(path, new Checkpoint(fileKey, lastLineEnd,
+                    hashTail(channel, lastLineEnd), totals.copySums()));
+
+            BufferedTotalsReader.parseRange(channel, lastLineEnd, size, parser, bufferPool);
+            parser.finish();
+            return totals;
+        }
+    }
+
+    int size() {
+        return checkpoints.size();
+    }
+
+    /**
+     * Returns the position right after the last line feed in
+     * {@code [from, to)}, or {@code from} if there is none.
+     */
+    private long findLastLineEnd(FileChannel channel, long from, long to) throws IOException {
+        ByteBuffer buffer = bufferPool.acquire();
+        try {
+            long end = to;
+            while (end > from) {
+                long start = Math.max(from, end - buffer.capacity());
+                buffer.clear();
+                buffer.limit((int) (end - start));
+                int read = channel.read(buffer, start);
+                for (int i = read - 1; i >= 0; i--) {
+                    if (buffer.get(i) == LINE_FEED) {
+                        return start + i + 1;
+                    }
+                }
+                end = start;
+            }
+            return from;
+        } finally {
+            bufferPool.release(buffer);
+        }
+    }
+
+    /**
+     * Returns the CRC32C of the up to {@value #TAIL_SIZE} bytes before the
+     * given offset. Changes before them don't affect the result.
+     */
+    private long hashTail(FileChannel channel, long offset) throws IOException {
+        CRC32C crc = new CRC32C();
+        ByteBuffer buffer = bufferPool.acquire();
+        try {
+            long position = offset - Math.min(TAIL_SIZE, offset);
+            while (position < offset) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), offset - position));
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    break;
+                }
+                crc.update(buffer.flip());
+                position += read;
+            }
+            return crc.getValue();
+        } finally {
+            bufferPool.release(buffer);
+        }
+    }
+
+    private boolean isValid(Checkpoint checkpoint, FileChannel channel, Object fileKey,
+            long size) throws IOException {
+        if (!Objects.equals(checkpoint.fileKey, fileKey) || size < checkpoint.offset) {
+            return false;
+        }
+        return checkpoint.offset == 0
+                || hashTail(channel, checkpoint.offset) == checkpoint.tailHash;
+    }
+
+    private static final class Checkpoint {
+        private final Object fileKey;
+        private final long offset;
+        private final long tailHash;
+        private final Totals totals;
+
+        private Checkpoint(Object fileKey, long offset, long tailHash, Totals totals) {
+            this.fileKey = fileKey;
+            this.offset = offset;
+            this.tailHash = tailHash;
+            this.totals = totals;
+        }
+    }
+}
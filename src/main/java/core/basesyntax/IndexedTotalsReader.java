@@ -0,0 +1,165 @@
+package core.basesyntax;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CRC32C;
+
+/**
+ * Splits the source into blocks that end right after a line feed and keeps
+ * the sums and a content hash of every block in a {@link BlockIndex} sidecar
+ * next to the source. On the next read a block that still has the same range
+ * and hash is only hashed, not parsed, and its stored sums are reused; every
+ * other block is parsed again and the sidecar is updated.
+ *
+ * <p>Hashing runs on CRC intrinsics and is much cheaper than parsing, so a
+ * large file that was corrected in place is recomputed in the time it takes
+ * to read it. An edit that changes the length of a line shifts all following
+ * blocks, which are then parsed again.
+ *
+ * <p>The sidecar keeps only the sums, so a read that counted non-ASCII
+ * amounts is not saved; its blocks are parsed again next time and report
+ * those amounts again.
+ *
+ * <p>The sidecar only saves time, so a sidecar that can't be written, for
+ * example because the directory is read-only, doesn't fail the read. The
+ * totals are returned and the failure is counted in
+ * {@link StatisticMetrics#getIndexSaveFailures()}.
+ */
+class IndexedTotalsReader implements TotalsReader {
+    private static final long BLOCK_SIZE = 4L << 20;
+    private static final byte LINE_FEED = '\n';
+
+    private final long blockSize;
+    private final ByteBufferPool bufferPool;
+
+    IndexedTotalsReader(ByteBufferPool bufferPool) {
+        this(BLOCK_SIZE, bufferPool);
+    }
+
+    IndexedTotalsReader(long blockSize) {
+        this(blockSize, ByteBufferPool.getDefault());
+    }
+
+    IndexedTotalsReader(long blockSize, ByteBufferPool bufferPool) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be positive, but was "
+                    + blockSize);
+        }
+        this.blockSize = blockSize;
+        this.bufferPool = bufferPool;
+    }
+
+    @Override
+    public Totals read(Path source) throws IOException {
+        Path sidecar = BlockIndex.sidecarOf(source);
+        BlockIndex index = BlockIndex.load(sidecar);
+        List<BlockIndex.Block> blocks = new ArrayList<>();
+        Totals totals = new Totals();
+        boolean changed = false;
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                BlockIndex.Block block = reuseBlock(channel, index.blockAt(position), size,
+                        totals);
+                if (block == null) {
+                    block = parseBlock(channel, position, size, totals);
+                    changed = true;
+                }
+                blocks.add(block);
+                position = block.end;
+            }
+        }
+        if ((changed || blocks.size() != index.size()) && totals.nonAsciiAmounts == 0) {
+            save(sidecar, blocks);
+        }
+        return totals;
+    }
+
+    private static void save(Path sidecar, List<BlockIndex.Block> blocks) {
+        try {
+            BlockIndex.save(sidecar, blocks);
+        } catch (IOException e) {
+            StatisticMetrics.getInstance().countIndexSaveFailure();
+        }
+    }
+
+    /**
+     * Adds the stored sums of the block if its content is unchanged and it
+     * still ends a line.
+     *
+     * @return The reused block, or {@code null} if it has to be parsed.
+     */
+    private BlockIndex.Block reuseBlock(FileChannel channel, BlockIndex.Block stored, long size,
+            Totals totals) throws IOException {
+        if (stored == null || stored.end > size) {
+            return null;
+        }
+        long start = System.nanoTime();
+        boolean unchanged = hashRange(channel, stored.start, stored.end, null) == stored.hash
+                && (stored.end == size || endsWithLineFeed(channel, stored.end));
+        totals.readNanos += System.nanoTime() - start;
+        if (!unchanged) {
+            return null;
+        }
+        totals.supply += stored.supply;
+        totals.buy += stored.buy;
+        return stored;
+    }
+
+    private BlockIndex.Block parseBlock(FileChannel channel, long start, long size,
+            Totals totals) throws IOException {
+        long end = ParallelTotalsReader.nextLineStart(channel,
+                Math.min(size, start + blockSize), size, bufferPool);
+        Totals blockTotals = new Totals();
+        TotalsParser parser = new TotalsParser(blockTotals);
+        long hash = hashRange(channel, start, end, parser);
+        parser.finish();
+        totals.add(blockTotals);
+        return new BlockIndex.Block(start, end, hash, blockTotals.supply, blockTotals.buy);
+    }
+
+    /**
+     * Returns a 64-bit hash of the bytes in {@code [from, to)} made of their
+     * CRC32C and CRC32, and feeds the bytes into the parser unless it is
+     * {@code null}.
+     */
+    private long hashRange(FileChannel channel, long from, long to, TotalsParser parser)
+            throws IOException {
+        CRC32C crc32c = new CRC32C();
+        CRC32 crc32 = new CRC32();
+        ByteBuffer buffer = bufferPool.acquire();
+        try {
+            long position = from;
+            while (position < to) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), to - position));
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    break;
+                }
+                buffer.flip();
+                crc32c.update(buffer.duplicate());
+                crc32.update(buffer.duplicate());
+                if (parser != null) {
+                    parser.parse(buffer, 0, read);
+                }
+                position += read;
+            }
+        } finally {
+            bufferPool.release(buffer);
+        }
+        return crc32c.getValue() << Integer.SIZE | crc32.getValue();
+    }
+
+    private boolean endsWithLineFeed(FileChannel channel, long end) throws IOException {
+        ByteBuffer lastByte = ByteBuffer.allocate(1);
+        return channel.read(lastByte, end - 1) == 1 && lastByte.get(0) == LINE_FEED;
+    }
+}
@@ -0,0 +1,63 @@
+package core.basesyntax;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with power-of-two buckets: bucket {@code i}
+ * counts durations in {@code [2^(i-1), 2^i)} nanoseconds. Recording is a
+ * couple of atomic increments; percentiles are reported as the upper bound
+ * of the bucket they fall into.
+ */
+class LatencyHistogram {
+    private static final int BUCKETS = Long.SIZE;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+
+    void record(long nanos) {
+        long duration = Math.max(0, nanos);
+        int bucket = Long.SIZE - Long.numberOfLeadingZeros(duration);
+        buckets.incrementAndGet(Math.min(BUCKETS - 1, bucket));
+        count.increment();
+        totalNanos.add(duration);
+    }
+
+    long getCount() {
+        return count.sum();
+    }
+
+    long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    /**
+     * Returns the upper bound in nanoseconds of the bucket holding the given
+     * percentile, or 0 if nothing was recorded.
+     */
+    long getPercentileNanos(double percentile) {
+        long[] snapshot = getBuckets();
+        long total = 0;
+        for (long bucket : snapshot) {
+            total += bucket;
+        }
+        long rank = (long) Math.ceil(total * percentile / 100);
+        long seen = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            seen += snapshot[i];
+            if (seen >= rank && snapshot[i] > 0) {
+                return i == BUCKETS - 1 ? Long.MAX_VALUE : 1L << i;
+            }
+        }
+        return 0;
+    }
+
+    long[] getBuckets() {
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = buckets.get(i);
+        }
+        return snapshot;
+    }
+}
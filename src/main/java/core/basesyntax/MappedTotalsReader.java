@@ -0,0 +1,50 @@
+package core.basesyntax;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Parses the source straight from memory-mapped segments of the file.
+ *
+ * <p>A single mapping is limited to {@code Integer.MAX_VALUE} bytes, so larger
+ * files are mapped one segment at a time. A record that crosses a segment
+ * boundary needs no special handling because {@link TotalsParser} keeps the
+ * partial record in its state between segments.
+ */
+class MappedTotalsReader implements TotalsReader {
+    private static final long DEFAULT_SEGMENT_SIZE = 1L << 30;
+
+    private final long segmentSize;
+
+    MappedTotalsReader() {
+        this(DEFAULT_SEGMENT_SIZE);
+    }
+
+    MappedTotalsReader(long segmentSize) {
+        if (segmentSize <= 0 || segmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Segment size must be between 1 and "
+                    + Integer.MAX_VALUE + ", but was " + segmentSize);
+        }
+        this.segmentSize = segmentSize;
+    }
+
+    @Override
+    public Totals read(Path source) throws IOException {
+        Totals totals = new Totals();
+        TotalsParser parser = new TotalsParser(totals);
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long position = 0; position < size; position += segmentSize) {
+                int length = (int) Math.min(segmentSize, size - position);
+                MappedByteBuffer segment =
+                        channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                parser.parse(segment, 0, length);
+            }
+        }
+        parser.finish();
+        return totals;
+    }
+}
@@ -0,0 +1,168 @@
+package core.basesyntax;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Sums amounts per operation, looking the operation up directly as a byte
+ * slice of the parsed buffer. Keys are copied into one shared byte array the
+ * first time they appear; after that, adding an amount allocates nothing.
+ *
+ * <p>The table uses open addressing with linear probing and is kept at most
+ * half full. While there are at most a few operations, the keys are compared
+ * one by one without hashing. "supply" and "buy" never get here, as
+ * {@link TotalsParser} matches them first. Sums wrap around like the
+ * "supply" and "buy" sums in {@link Totals}.
+ *
+ * <p>Instances are not thread-safe; use one per parser and merge them with
+ * {@link #addAll}.
+ */
+final class OperationTotals {
+    private static final int INITIAL_SLOTS = 16;
+    private static final int LINEAR_SEARCH_LIMIT = 4;
+    private static final int INITIAL_KEY_BYTES = 256;
+    private static final int HASH_MULTIPLIER = 31;
+    private static final int MIX_MULTIPLIER = 0x9E3779B9;
+    private static final int MIX_SHIFT = 16;
+
+    private int[] slots = new int[INITIAL_SLOTS];
+    private int[] hashes = new int[INITIAL_SLOTS / 2];
+    private int[] keyOffsets = new int[INITIAL_SLOTS / 2];
+    private int[] keyLengths = new int[INITIAL_SLOTS / 2];
+    private int[] sums = new int[INITIAL_SLOTS / 2];
+    private byte[] keyBytes = new byte[INITIAL_KEY_BYTES];
+    private int keyBytesUsed;
+    private int size;
+
+    /**
+     * Adds the amount to the operation stored at the absolute indexes
+     * {@code [from, from + length)} of the buffer.
+     */
+    void add(ByteBuffer buffer, int from, int length, int amount) {
+        if (size > LINEAR_SEARCH_LIMIT) {
+            addHashed(buffer, from, length, amount);
+            return;
+        }
+        for (int entry = 0; entry < size; entry++) {
+            if (keyEquals(entry, buffer, from, length)) {
+                sums[entry] += amount;
+                return;
+            }
+        }
+        int entry = insert(buffer, from, length, hash(buffer, from, length));
+        sums[entry] += amount;
+    }
+
+    private void addHashed(ByteBuffer buffer, int from, int length, int amount) {
+        int hash = hash(buffer, from, length);
+        int mask = slots.length - 1;
+        int slot = mix(hash) & mask;
+        int entry = slots[slot] - 1;
+        while (entry >= 0) {
+            if (hashes[entry] == hash && keyEquals(entry, buffer, from, length)) {
+                sums[entry] += amount;
+                return;
+            }
+            slot = (slot + 1) & mask;
+            entry = slots[slot] - 1;
+        }
+        entry = insert(buffer, from, length, hash);
+        sums[entry] += amount;
+    }
+
+    /**
+     * Adds the sums of another instance, which is left unchanged.
+     */
+    void addAll(OperationTotals other) {
+        ByteBuffer otherKeys = ByteBuffer.wrap(other.keyBytes);
+        for (int entry = 0; entry < other.size; entry++) {
+            add(otherKeys, other.keyOffsets[entry], other.keyLengths[entry], other.sums[entry]);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the sums by operation name, decoding every name once. Names
+     * that decode to the same text, such as two malformed byte sequences,
+     * share one sum.
+     */
+    SortedMap<String, Integer> toSortedMap(Charset charset) {
+        SortedMap<String, Integer> map = new TreeMap<>();
+        for (int entry = 0; entry < size; entry++) {
+            map.merge(new String(keyBytes, keyOffsets[entry], keyLengths[entry], charset),
+                    sums[entry], Integer::sum);
+        }
+        return map;
+    }
+
+    private int insert(ByteBuffer buffer, int from, int length, int hash) {
+        if ((size + 1) * 2 > slots.length) {
+            grow();
+        }
+        if (keyBytesUsed + length > keyBytes.length) {
+            keyBytes = Arrays.copyOf(keyBytes, Math.max(keyBytes.length * 2,
+                    keyBytesUsed + length));
+        }
+        buffer.get(from, keyBytes, keyBytesUsed, length);
+        int entry = size++;
+        hashes[entry] = hash;
+        keyOffsets[entry] = keyBytesUsed;
+        keyLengths[entry] = length;
+        keyBytesUsed += length;
+        place(entry);
+        return entry;
+    }
+
+    private void grow() {
+        int entries = slots.length;
+        slots = new int[slots.length * 2];
+        hashes = Arrays.copyOf(hashes, entries);
+        keyOffsets = Arrays.copyOf(keyOffsets, entries);
+        keyLengths = Arrays.copyOf(keyLengths, entries);
+        sums = Arrays.copyOf(sums, entries);
+        for (int entry = 0; entry < size; entry++) {
+            place(entry);
+        }
+    }
+
+    private void place(int entry) {
+        int mask = slots.length - 1;
+        int slot = mix(hashes[entry]) & mask;
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = entry + 1;
+    }
+
+    private boolean keyEquals(int entry, ByteBuffer buffer, int from, int length) {
+        if (keyLengths[entry] != length) {
+            return false;
+        }
+        int offset = keyOffsets[entry];
+        for (int i = 0; i < length; i++) {
+            if (keyBytes[offset + i] != buffer.get(from + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(ByteBuffer buffer, int from, int length) {
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = hash * HASH_MULTIPLIER + buffer.get(from + i);
+        }
+        return hash;
+    }
+
+    private static int mix(int hash) {
+        int mixed = hash * MIX_MULTIPLIER;
+        return mixed ^ (mixed >>> MIX_SHIFT);
+    }
+}
@@ -0,0 +1,150 @@
+package core.basesyntax;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Splits the source into byte ranges that start right after a line feed,
+ * calculates partial totals for every range on a {@link ForkJoinPool} and
+ * merges them. Because every range starts at a line boundary, each record is
+ * parsed exactly once and the result equals the sequential one. The pool is
+ * owned by the caller and shared across reads, so a read starts no threads
+ * of its own.
+ */
+class ParallelTotalsReader implements TotalsReader {
+    private static final long MIN_CHUNK_SIZE = 1L << 20;
+    private static final byte LINE_FEED = '\n';
+
+    private final int parallelism;
+    private final long minChunkSize;
+    private final ForkJoinPool pool;
+    private final ByteBufferPool bufferPool;
+
+    ParallelTotalsReader(int parallelism, ForkJoinPool pool, ByteBufferPool bufferPool) {
+        this(parallelism, MIN_CHUNK_SIZE, pool, bufferPool);
+    }
+
+    ParallelTotalsReader(int parallelism, long minChunkSize) {
+        this(parallelism, minChunkSize, ForkJoinPool.commonPool(), ByteBufferPool.getDefault());
+    }
+
+    /**
+     * Creates a reader that splits a source into at most {@code parallelism}
+     * ranges and calculates them on the given pool.
+     */
+    ParallelTotalsReader(int parallelism, long minChunkSize, ForkJoinPool pool,
+            ByteBufferPool bufferPool) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive, but was "
+                    + parallelism);
+        }
+        if (minChunkSize < 1) {
+            throw new IllegalArgumentException("Minimal chunk size must be positive, but was "
+                    + minChunkSize);
+        }
+        this.parallelism = parallelism;
+        this.minChunkSize = minChunkSize;
+        this.pool = pool;
+        this.bufferPool = bufferPool;
+    }
+
+    @Override
+    public Totals read(Path source) throws IOException {
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            long[] bounds = splitAtLineFeeds(channel);
+            if (bounds.length == 2) {
+                return readRange(channel, bounds[0], bounds[1]);
+            }
+            return readRanges(channel, bounds);
+        }
+    }
+
+    private Totals readRanges(FileChannel channel, long[] bounds) throws IOException {
+        List<Callable<Totals>> tasks = new ArrayList<>();
+        for (int i = 0; i + 1 < bounds.length; i++) {
+            long from = bounds[i];
+            long to = bounds[i + 1];
+            tasks.add(() -> readRange(channel, from, to));
+        }
+        try {
+            Totals totals = new Totals();
+            for (Future<Totals> partial : pool.invokeAll(tasks)) {
+                totals.add(partial.get());
+            }
+            return totals;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while reading in parallel", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IllegalStateException("Can't calculate partial totals", e.getCause());
+        }
+    }
+
+    /**
+     * Returns ascending range bounds, the first being 0 and the last the file
+     * size. Every inner bound is moved forward to just after a line feed.
+     */
+    private long[] splitAtLineFeeds(FileChannel channel) throws IOException {
+        long size = channel.size();
+        int chunks = (int) Math.max(1, Math.min(parallelism, size / minChunkSize));
+        long[] bounds = new long[chunks + 1];
+        bounds[chunks] = size;
+        for (int i = 1; i < chunks; i++) {
+            long start = Math.max(bounds[i - 1], size / chunks * i);
+            bounds[i] = nextLineStart(channel, start, size, bufferPool);
+        }
+        return bounds;
+    }
+
+    /**
+     * Returns the position right after the first line feed at or after
+     * {@code position - 1}, which is {@code position} itself if it already
+     * starts a line, or the size if there is no such line feed.
+     */
+    static long nextLineStart(FileChannel channel, long position, long size,
+            ByteBufferPool bufferPool) throws IOException {
+        if (position == 0) {
+            return 0;
+        }
+        ByteBuffer buffer = bufferPool.acquire();
+        try {
+            long offset = position - 1;
+            while (offset < size) {
+                buffer.clear();
+                int read = channel.read(buffer, offset);
+                if (read <= 0) {
+                    break;
+                }
+                for (int i = 0; i < read; i++) {
+                    if (buffer.get(i) == LINE_FEED) {
+                        return offset + i + 1;
+                    }
+                }
+                offset += read;
+            }
+            return size;
+        } finally {
+            bufferPool.release(buffer);
+        }
+    }
+
+    private Totals readRange(FileChannel channel, long from, long to) throws IOException {
+        Totals totals = new Totals();
+        TotalsParser parser = new TotalsParser(totals);
+        BufferedTotalsReader.parseRange(channel, from, to, parser, bufferPool);
+        parser.finish();
+        return totals;
+    }
+}
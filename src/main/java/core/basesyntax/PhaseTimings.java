@@ -0,0 +1,55 @@
+package core.basesyntax;
+
+/**
+ * Snapshot of the timings of one phase of {@link WorkWithFile#getStatistic},
+ * exposed through {@link StatisticMetricsMXBean}.
+ */
+public class PhaseTimings {
+    private static final double MEDIAN = 50;
+    private static final double P90 = 90;
+    private static final double P99 = 99;
+
+    private final long count;
+    private final long totalNanos;
+    private final long medianNanos;
+    private final long p90Nanos;
+    private final long p99Nanos;
+    private final long[] histogram;
+
+    PhaseTimings(LatencyHistogram latencies) {
+        this.count = latencies.getCount();
+        this.totalNanos = latencies.getTotalNanos();
+        this.medianNanos = latencies.getPercentileNanos(MEDIAN);
+        this.p90Nanos = latencies.getPercentileNanos(P90);
+        this.p99Nanos = latencies.getPercentileNanos(P99);
+        this.histogram = latencies.getBuckets();
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public long getMedianNanos() {
+        return medianNanos;
+    }
+
+    public long getP90Nanos() {
+        return p90Nanos;
+    }
+
+    public long getP99Nanos() {
+        return p99Nanos;
+    }
+
+    /**
+     * Returns the bucket counts; bucket {@code i} holds durations below
+     * {@code 2^i} nanoseconds that did not fit into bucket {@code i - 1}.
+     */
+    public long[] getHistogram() {
+        return histogram.clone();
+    }
+}
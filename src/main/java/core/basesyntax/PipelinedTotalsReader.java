@@ -0,0 +1,296 @@
+package core.basesyntax;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Overlaps reading and parsing: the calling thread fills large direct buffers
+ * from the file while parser threads aggregate the buffers filled before.
+ *
+ * <p>Every parser thread has its own lane: a {@link SpscRingBuffer} of filled
+ * buffers from the reader and one of parsed buffers back to it, so each
+ * buffer is recycled and the rings never need a lock. The reader hands the
+ * buffers to the lanes in turn. It cuts each buffer right after its last line
+ * end and moves the rest into the next buffer of the next lane, so every lane
+ * starts on a whole line and the lanes can parse independently. A buffer
+ * without a line end, as with a line longer than a buffer, goes to the same
+ * lane as the next one, whose parser carries the partial line over; no buffer
+ * ever grows. A carriage return that ends a buffer is not a cut, as it may
+ * be the first half of a "\r\n" pair. The buffers are borrowed from a
+ * {@link ByteBufferPool} and returned once the parser tasks have ended.
+ * Large buffers keep the reads few and long, so the pool should come from
+ * {@link #createBufferPool(int)}, which holds 1 MiB buffers for every lane.
+ *
+ * <p>The parsers run on a pool of {@code parserThreads} threads that the
+ * reader starts on its first read and keeps until it is closed. Reads on one
+ * instance run one at a time: the lanes of a single read already keep every
+ * parser thread busy, and the buffer pool only holds the buffers of one read.
+ */
+class PipelinedTotalsReader implements TotalsReader, AutoCloseable {
+    private static final int BUFFERS_PER_LANE = 4;
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final int SPIN_LIMIT = 100;
+    private static final long PARK_NANOS = 50_000;
+    private static final byte LINE_FEED = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+    private static final ByteBuffer END = ByteBuffer.allocate(0);
+
+    private final int parserThreads;
+    private final ByteBufferPool bufferPool;
+    private final ExecutorService laneExecutor;
+    private final Lock readLock = new ReentrantLock();
+
+    PipelinedTotalsReader(int parserThreads, ByteBufferPool bufferPool) {
+        if (parserThreads < 1) {
+            throw new IllegalArgumentException("Parser threads must be positive, but was "
+                    + parserThreads);
+        }
+        this.parserThreads = parserThreads;
+        this.bufferPool = bufferPool;
+        this.laneExecutor = Executors.newFixedThreadPool(parserThreads, runnable -> {
+            Thread thread = new Thread(runnable, "pipelined-parser");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns a pool with a buffer of 1 MiB for every buffer the lanes of one
+     * read take, so reads with up to that many parser threads are never short
+     * of pooled buffers.
+     */
+    static ByteBufferPool createBufferPool(int parserThreads) {
+        return new ByteBufferPool(parserThreads * BUFFERS_PER_LANE, BUFFER_SIZE);
+    }
+
+    @Override
+    public Totals read(Path source) throws IOException {
+        Lane[] lanes = new Lane[parserThreads];
+        Totals totals = new Totals();
+        readLock.lock();
+        try {
+            for (int i = 0; i < lanes.length; i++) {
+                lanes[i] = new Lane(bufferPool);
+            }
+            try {
+                for (Lane lane : lanes) {
+                    lane.start(laneExecutor);
+                }
+                try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+                    totals.readNanos = fillLanes(channel, lanes);
+                }
+            } finally {
+                for (Lane lane : lanes) {
+                    lane.finish();
+                    lane.releaseBuffers(bufferPool);
+                }
+            }
+        } finally {
+            readLock.unlock();
+        }
+        for (Lane lane : lanes) {
+            lane.checkFailure();
+            totals.add(lane.totals);
+        }
+        return totals;
+    }
+
+    /**
+     * Shuts down the parser threads; a read in progress still completes.
+     */
+    @Override
+    public void close() {
+        laneExecutor.shutdown();
+    }
+
+    /**
+     * Reads the channel into the buffers of the lanes and returns the time
+     * spent reading.
+     */
+    private long fillLanes(FileChannel channel, Lane[] lanes) throws IOException {
+        long readNanos = 0;
+        int laneIndex = 0;
+        ByteBuffer buffer = lanes[laneIndex].takeFreeBuffer();
+        while (true) {
+            long start = System.nanoTime();
+            boolean endOfFile = fill(channel, buffer);
+            readNanos += System.nanoTime() - start;
+            if (endOfFile) {
+                lanes[laneIndex].publish(buffer.flip());
+                return readNanos;
+            }
+            int lineEnd = findLastLineEnd(buffer);
+            if (lineEnd == 0) {
+                lanes[laneIndex].publish(buffer.flip());
+                buffer = lanes[laneIndex].takeFreeBuffer();
+                continue;
+            }
+            int nextLane = (laneIndex + 1) % lanes.length;
+            ByteBuffer next = lanes[nextLane].takeFreeBuffer();
+            next.put(buffer.duplicate().position(lineEnd).limit(buffer.position()));
+            lanes[laneIndex].publish(buffer.position(lineEnd).flip());
+            laneIndex = nextLane;
+            buffer = next;
+        }
+    }
+
+    /**
+     * Reads until the buffer is full or the channel ends.
+     *
+     * @return {@code true} if the channel ended.
+     */
+    private static boolean fill(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) == -1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the index right after the last line end before the buffer's
+     * position, or 0 if there is none. A carriage return right before the
+     * position doesn't count, as a line feed may follow it.
+     */
+    private static int findLastLineEnd(ByteBuffer buffer) {
+        int last = buffer.position() - 1;
+        for (int i = last; i >= 0; i--) {
+            byte current = buffer.get(i);
+            if (current == LINE_FEED || (current == CARRIAGE_RETURN && i < last)) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    private static void idle(int attempt) {
+        if (attempt < SPIN_LIMIT) {
+            Thread.onSpinWait();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+    }
+
+    /**
+     * One parser task with its rings of filled and free buffers.
+     */
+    private static final class Lane implements Runnable {
+        private final SpscRingBuffer<ByteBuffer> filled =
+                new SpscRingBuffer<>(BUFFERS_PER_LANE * 2);
+        private final SpscRingBuffer<ByteBuffer> free = new SpscRingBuffer<>(BUFFERS_PER_LANE);
+        private final Totals totals = new Totals();
+        private final CountDownLatch ended = new CountDownLatch(1);
+        private final ByteBuffer[] pooledBuffers = new ByteBuffer[BUFFERS_PER_LANE];
+        private boolean started;
+        private volatile RuntimeException failure;
+
+        private Lane(ByteBufferPool bufferPool) {
+            for (int i = 0; i < BUFFERS_PER_LANE; i++) {
+                pooledBuffers[i] = bufferPool.acquire();
+                free.offer(pooledBuffers[i]);
+            }
+        }
+
+        /**
+         * Starts parsing on a thread of the executor. Reader thread only.
+         */
+        void start(ExecutorService executor) {
+            executor.execute(this);
+            started = true;
+        }
+
+        @Override
+        public void run() {
+            TotalsParser parser = new TotalsParser(totals);
+            try {
+                ByteBuffer buffer;
+                while ((buffer = takeFilledBuffer()) != END) {
+                    parser.parse(buffer, 0, buffer.limit());
+                    free.offer(buffer.clear());
+                }
+                parser.finish();
+            } catch (RuntimeException e) {
+                failure = e;
+            } finally {
+                ended.countDown();
+            }
+        }
+
+        /**
+         * Waits for a parsed buffer, cleared for reading. Reader thread only.
+         */
+        ByteBuffer takeFreeBuffer() {
+            ByteBuffer buffer;
+            for (int attempt = 0; (buffer = free.poll()) == null; attempt++) {
+                checkFailure();
+                idle(attempt);
+            }
+            return buffer;
+        }
+
+        /**
+         * Hands the bytes up to the buffer's limit to the parser thread.
+         * Reader thread only.
+         */
+        void publish(ByteBuffer buffer) {
+            for (int attempt = 0; !filled.offer(buffer); attempt++) {
+                checkFailure();
+                idle(attempt);
+            }
+        }
+
+        /**
+         * Ends the input of the lane and waits for its parser task, if it was
+         * started. There is always room for the end marker, because the ring
+         * of filled buffers is larger than the number of buffers.
+         */
+        void finish() {
+            filled.offer(END);
+            boolean interrupted = false;
+            while (started && ended.getCount() > 0) {
+                try {
+                    ended.await();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * Returns the buffers taken from the pool. Only valid once the parser
+         * task has ended.
+         */
+        void releaseBuffers(ByteBufferPool bufferPool) {
+            for (ByteBuffer buffer : pooledBuffers) {
+                bufferPool.release(buffer);
+            }
+        }
+
+        private ByteBuffer takeFilledBuffer() {
+            ByteBuffer buffer;
+            for (int attempt = 0; (buffer = filled.poll()) == null; attempt++) {
+                idle(attempt);
+            }
+            return buffer;
+        }
+
+        void checkFailure() {
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+}
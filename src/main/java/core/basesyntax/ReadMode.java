@@ -0,0 +1,46 @@
+package core.basesyntax;
+
+/**
+ * Selects how {@link WorkWithFile} reads the source file.
+ */
+public enum ReadMode {
+    /**
+     * Reads the file sequentially through a pooled direct buffer.
+     */
+    BUFFERED,
+    /**
+     * Maps the file into memory segment by segment with
+     * {@link java.nio.channels.FileChannel#map}, so the bytes are parsed
+     * straight from the page cache. Suited to files that are read repeatedly.
+     */
+    MEMORY_MAPPED,
+    /**
+     * Splits a large file into line-aligned byte ranges and aggregates them
+     * concurrently. The number of threads is set through
+     * {@link WorkWithFile#WorkWithFile(int)}.
+     */
+    PARALLEL,
+    /**
+     * Remembers how far every source was parsed and later parses only the
+     * lines appended since then. Meant for append-only files; a replaced or
+     * shrunk file, or one whose last 4 KiB before that point changed, is
+     * recomputed from the start, but other edits in place are not noticed.
+     * The progress is kept per {@link WorkWithFile} instance.
+     */
+    INCREMENTAL,
+    /**
+     * Keeps the sums and a content hash of every block of about 4 MiB in a
+     * sidecar file named like the source plus ".blocks", and later parses
+     * only the blocks whose content changed. Meant for large files that are
+     * corrected in place; the directory of the source must be writable.
+     */
+    INDEXED,
+    /**
+     * Reads the file on the calling thread while other threads parse the
+     * buffers read before, so reading and parsing overlap. One thread less
+     * than set through {@link WorkWithFile#WorkWithFile(int)} parses, but
+     * at least one. Pipelined reads of one {@link WorkWithFile} run one at a
+     * time, as each already keeps all of its parser threads busy.
+     */
+    PIPELINED
+}
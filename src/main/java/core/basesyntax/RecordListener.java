@@ -0,0 +1,11 @@
+package core.basesyntax;
+
+/**
+ * Receives every "supply" and "buy" record a {@link TotalsParser} counts, in
+ * the order of the source.
+ */
+interface RecordListener {
+    void onSupply(int amount);
+
+    void onBuy(int amount);
+}
@@ -0,0 +1,261 @@
+package core.basesyntax;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Publishes report files atomically with the configured {@link Durability}.
+ *
+ * <p>The content goes to a uniquely named temporary file in the target's
+ * directory, created with the default permissions, and is then moved over
+ * the target with an atomic rename. With {@link Durability#GROUP_COMMIT} the
+ * temporary files are collected until {@link #sync()}, which syncs each of
+ * them before renaming it and then every directory that got a report once.
+ *
+ * <p>Instances are thread-safe.
+ */
+class ReportPublisher {
+    private static final String TEMPORARY_PREFIX = ".";
+    private static final String TEMPORARY_EXTENSION = ".tmp";
+
+    private final Durability durability;
+    private final Map<Path, Path> pendingReports = new ConcurrentHashMap<>();
+    private final Set<Path> pendingDirectories = ConcurrentHashMap.newKeySet();
+
+    ReportPublisher(Durability durability) {
+        this.durability = durability;
+    }
+
+    /**
+     * Replaces the target with the given content, or with
+     * {@link Durability#GROUP_COMMIT} prepares the replacement that
+     * {@link #sync()} completes. A later report for the same target replaces
+     * a pending one.
+     */
+    void publish(Path target, ByteBuffer content) throws IOException {
+        Path temporary = temporaryFor(target);
+        try (FileChannel channel = FileChannel.open(temporary,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            while (content.hasRemaining()) {
+                channel.write(content);
+            }
+            if (durability == Durability.FSYNC) {
+                channel.force(true);
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        complete(target, temporary);
+    }
+
+    /**
+     * Same as {@link #publish}, but writes the content through an
+     * {@link AsynchronousFileChannel}, so no thread waits while the content
+     * is written. Creating the temporary file, the sync of
+     * {@link Durability#FSYNC} and the rename have no asynchronous
+     * counterpart; they run as the last stage on the given executor.
+     */
+    CompletableFuture<Void> publishAsync(Path target, ByteBuffer content, Executor executor) {
+        Path temporary = temporaryFor(target);
+        AsynchronousFileChannel channel;
+        try {
+            channel = AsynchronousFileChannel.open(temporary,
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<Void> written = new CompletableFuture<>();
+        new WriteLoop(channel, content, written).writeNext();
+        return written.handleAsync((ignored, error) -> {
+            try {
+                finishWrite(channel, temporary, error);
+                complete(target, temporary);
+                return null;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Closes the channel of an asynchronous write, syncing it first with
+     * {@link Durability#FSYNC}, and deletes the temporary file if the write or
+     * the sync failed.
+     */
+    private void finishWrite(AsynchronousFileChannel channel, Path temporary, Throwable error)
+            throws IOException {
+        try {
+            try (channel) {
+                if (error != null) {
+                    throw error instanceof IOException
+                            ? (IOException) error : new IOException(error);
+                }
+                if (durability == Durability.FSYNC) {
+                    channel.force(true);
+                }
+            }
+        } catch (IOException e) {
+            deleteQuietly(temporary);
+            throw e;
+        }
+    }
+
+    private Path temporaryFor(Path target) {
+        return target.toAbsolutePath().getParent().resolve(TEMPORARY_PREFIX
+                + target.getFileName() + "."
+                + Long.toHexString(ThreadLocalRandom.current().nextLong())
+                + TEMPORARY_EXTENSION);
+    }
+
+    /**
+     * Moves the written temporary file over the target, or keeps it pending
+     * with {@link Durability#GROUP_COMMIT}. The temporary file is deleted if
+     * the move fails.
+     */
+    private void complete(Path target, Path temporary) throws IOException {
+        Path absoluteTarget = target.toAbsolutePath();
+        if (durability == Durability.GROUP_COMMIT) {
+            Path replaced = pendingReports.put(absoluteTarget, temporary);
+            if (replaced != null) {
+                Files.deleteIfExists(replaced);
+            }
+            return;
+        }
+        try {
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        if (durability == Durability.FSYNC) {
+            syncDirectory(absoluteTarget.getParent());
+        }
+    }
+
+    private static void deleteQuietly(Path temporary) {
+        try {
+            Files.deleteIfExists(temporary);
+        } catch (IOException e) {
+            // The write already failed; a leftover temporary file is harmless
+        }
+    }
+
+    /**
+     * Syncs and renames every report published since the last call, then
+     * syncs every directory that received one, once each. Does nothing unless
+     * the durability is {@link Durability#GROUP_COMMIT}.
+     */
+    void sync() throws IOException {
+        for (Map.Entry<Path, Path> report : new ArrayList<>(pendingReports.entrySet())) {
+            Path target = report.getKey();
+            Path temporary = report.getValue();
+            if (pendingReports.remove(target, temporary)) {
+                commit(target, temporary);
+                pendingDirectories.add(target.getParent());
+            }
+        }
+        List<Path> directories = new ArrayList<>(pendingDirectories);
+        for (Path directory : directories) {
+            pendingDirectories.remove(directory);
+            try {
+                syncDirectory(directory);
+            } catch (IOException e) {
+                pendingDirectories.add(directory);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Makes the content of the temporary file durable and moves it over the
+     * target, so a crash can't leave a renamed but empty report. The
+     * temporary file is kept pending if syncing it fails.
+     */
+    private void commit(Path target, Path temporary) throws IOException {
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            channel.force(false);
+        } catch (IOException e) {
+            if (pendingReports.putIfAbsent(target, temporary) != null) {
+                Files.deleteIfExists(temporary);
+            }
+            throw e;
+        }
+        try {
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private void syncDirectory(Path directory) throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (IOException e) {
+            // Some platforms can't open a directory; the rename is all we can do there
+            return;
+        }
+        try (channel) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Writes the content from its position on, issuing the next write from
+     * the completion of the previous one.
+     */
+    private static final class WriteLoop implements CompletionHandler<Integer, Void> {
+        private final AsynchronousFileChannel channel;
+        private final ByteBuffer content;
+        private final CompletableFuture<Void> written;
+        private long position;
+
+        private WriteLoop(AsynchronousFileChannel channel, ByteBuffer content,
+                CompletableFuture<Void> written) {
+            this.channel = channel;
+            this.content = content;
+            this.written = written;
+        }
+
+        void writeNext() {
+            if (!content.hasRemaining()) {
+                written.complete(null);
+                return;
+            }
+            try {
+                channel.write(content, position, null, this);
+            } catch (RuntimeException e) {
+                written.completeExceptionally(e);
+            }
+        }
+
+        @Override
+        public void completed(Integer count, Void attachment) {
+            position += count;
+            writeNext();
+        }
+
+        @Override
+        public void failed(Throwable error, Void attachment) {
+            written.completeExceptionally(error);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package core.basesyntax;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Formats the supply, buy and result rows of a report straight into a
+ * reusable direct buffer, producing the same bytes as encoding the String of
+ * {@link WorkWithFile#createReport} with the default charset. Nothing is
+ * allocated per report.
+ *
+ * <p>The bytes are only the same when the default charset encodes the
+ * report's characters as ASCII, which {@link #isSupported()} checks once.
+ *
+ * <p>Instances are not thread-safe; use one renderer per thread.
+ */
+final class ReportRenderer {
+    private static final byte[] SUPPLY_PREFIX = ascii("supply,");
+    private static final byte[] BUY_PREFIX = ascii("buy,");
+    private static final byte[] RESULT_PREFIX = ascii("result,");
+    private static final byte[] LINE_SEPARATOR = ascii(System.lineSeparator());
+    private static final String PROBE = "supply,buy,result-0123456789" + System.lineSeparator();
+    private static final boolean SUPPORTED = Arrays.equals(ascii(PROBE),
+            toArray(Charset.defaultCharset().encode(PROBE)));
+    private static final int MAX_INT_LENGTH = String.valueOf(Integer.MIN_VALUE).length();
+    private static final int CAPACITY = SUPPLY_PREFIX.length + BUY_PREFIX.length
+            + RESULT_PREFIX.length + 2 * LINE_SEPARATOR.length + 3 * MAX_INT_LENGTH;
+    private static final int RADIX = 10;
+    private static final byte MINUS = '-';
+    private static final byte ZERO = '0';
+
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(CAPACITY);
+    private final byte[] digits = new byte[MAX_INT_LENGTH];
+
+    static boolean isSupported() {
+        return SUPPORTED;
+    }
+
+    /**
+     * Renders the report of the totals. The returned buffer is ready to be
+     * written and is overwritten by the next call.
+     */
+    ByteBuffer render(Totals totals) {
+        buffer.clear();
+        buffer.put(SUPPLY_PREFIX);
+        putInt(totals.supply);
+        buffer.put(LINE_SEPARATOR).put(BUY_PREFIX);
+        putInt(totals.buy);
+        buffer.put(LINE_SEPARATOR).put(RESULT_PREFIX);
+        putInt(totals.supply - totals.buy);
+        return buffer.flip();
+    }
+
+    private void putInt(int value) {
+        long remaining = value;
+        if (remaining < 0) {
+            buffer.put(MINUS);
+            remaining = -remaining;
+        }
+        int start = digits.length;
+        do {
+            digits[--start] = (byte) (ZERO + remaining % RADIX);
+            remaining /= RADIX;
+        } while (remaining != 0);
+        buffer.put(digits, start, digits.length - start);
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[] toArray(ByteBuffer bytes) {
+        byte[] array = new byte[bytes.remaining()];
+        bytes.get(array);
+        return array;
+    }
+}
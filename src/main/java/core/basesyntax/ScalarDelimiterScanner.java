@@ -0,0 +1,23 @@
+package core.basesyntax;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Checks one byte at a time. Used when the Vector API is not available.
+ */
+class ScalarDelimiterScanner implements DelimiterScanner {
+    private static final byte DELIMITER = ',';
+    private static final byte LINE_FEED = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+
+    @Override
+    public int nextDelimiter(ByteBuffer buffer, int from, int to) {
+        for (int i = from; i < to; i++) {
+            byte current = buffer.get(i);
+            if (current == DELIMITER || current == LINE_FEED || current == CARRIAGE_RETURN) {
+                return i;
+            }
+        }
+        return to;
+    }
+}
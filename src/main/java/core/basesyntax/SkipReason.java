@@ -0,0 +1,35 @@
+package core.basesyntax;
+
+/**
+ * Why a source line did not contribute to the totals.
+ */
+enum SkipReason {
+    /**
+     * The line does not consist of exactly an operation and an amount.
+     */
+    WRONG_FIELD_COUNT,
+    /**
+     * The amount is not an optionally signed decimal number.
+     */
+    NON_NUMERIC,
+    /**
+     * The amount does not fit into an {@code int}.
+     */
+    OVERFLOW,
+    /**
+     * The line is well formed, but the report does not sum its operation:
+     * anything but supply and buy, or with a row per operation, an empty
+     * operation or "result".
+     */
+    UNKNOWN_OPERATION;
+
+    static final int COUNT = values().length;
+
+    /**
+     * Returns whether lines skipped for this reason are malformed, as opposed
+     * to well-formed lines of an operation the report does not use.
+     */
+    boolean isMalformed() {
+        return this != UNKNOWN_OPERATION;
+    }
+}
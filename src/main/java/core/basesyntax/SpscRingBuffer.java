@@ -0,0 +1,66 @@
+package core.basesyntax;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded lock-free queue for exactly one producer thread and one consumer
+ * thread.
+ *
+ * <p>Each side owns one counter and only reads the other's, so neither
+ * {@link #offer} nor {@link #poll} needs a compare-and-set. The release write
+ * of a counter publishes the element written before it.
+ *
+ * @param <E> The element type.
+ */
+final class SpscRingBuffer<E> {
+    private final Object[] elements;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Creates a ring buffer for the given number of elements, which must be a
+     * power of two.
+     */
+    SpscRingBuffer(int capacity) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two, but was "
+                    + capacity);
+        }
+        elements = new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Adds the element unless the ring buffer is full. Producer thread only.
+     *
+     * @return {@code false} if the ring buffer is full.
+     */
+    boolean offer(E element) {
+        long currentTail = tail.get();
+        if (currentTail - head.get() == elements.length) {
+            return false;
+        }
+        elements[(int) currentTail & mask] = element;
+        tail.lazySet(currentTail + 1);
+        return true;
+    }
+
+    /**
+     * Removes the oldest element. Consumer thread only.
+     *
+     * @return The element, or {@code null} if the ring buffer is empty.
+     */
+    @SuppressWarnings("unchecked")
+    E poll() {
+        long currentHead = head.get();
+        if (currentHead == tail.get()) {
+            return null;
+        }
+        int index = (int) currentHead & mask;
+        E element = (E) elements[index];
+        elements[index] = null;
+        head.lazySet(currentHead + 1);
+        return element;
+    }
+}
@@ -0,0 +1,360 @@
+package core.basesyntax;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Computes statistics for many files concurrently.
+ *
+ * <p>Every file gets its own virtual thread when the runtime provides them
+ * (Java 21+); on older runtimes a fixed pool with one platform thread per
+ * allowed open file is used instead. In both cases at most
+ * {@code maxOpenFiles} files are processed at the same time.
+ *
+ * <p>A directory tree is processed in separate stages: every read of a
+ * source buffer and the write of every report count against
+ * {@code maxOpenFiles}, while parsing a filled buffer only counts against
+ * {@code maxParsingThreads}. The I/O limit can then be tuned to the storage
+ * and the CPU limit to the cores independently. A source is only open while
+ * one of its buffers is read, and at most {@code maxOpenFiles +
+ * maxParsingThreads} files are in progress at once. Gzip and binary sources,
+ * and sources that need charset decoding, count against both limits while
+ * they are read.
+ *
+ * <p>After every batch the reports are synced with
+ * {@link WorkWithFile#syncReports()}, so with {@link Durability#GROUP_COMMIT}
+ * a whole batch shares one sync per report directory.
+ */
+public class StatisticBatch {
+    private static final String VIRTUAL_EXECUTOR_FACTORY = "newVirtualThreadPerTaskExecutor";
+    private static final String GLOB_SYNTAX = "glob:";
+
+    private final WorkWithFile workWithFile;
+    private final int maxOpenFiles;
+    private final int maxParsingThreads;
+
+    /**
+     * Creates a batch that processes files with the given {@link WorkWithFile}
+     * and parses on as many threads as there are processors.
+     *
+     * @param workWithFile The instance that computes every single report.
+     * @param maxOpenFiles The maximum number of files processed at once.
+     */
+    public StatisticBatch(WorkWithFile workWithFile, int maxOpenFiles) {
+        this(workWithFile, maxOpenFiles, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a batch with separate limits for file access and parsing.
+     *
+     * @param workWithFile      The instance that computes every single report.
+     * @param maxOpenFiles      The maximum number of files read or written at once.
+     * @param maxParsingThreads The maximum number of files parsed at once when
+     *                          a directory tree is processed.
+     */
+    public StatisticBatch(WorkWithFile workWithFile, int maxOpenFiles, int maxParsingThreads) {
+        if (maxOpenFiles < 1) {
+            throw new IllegalArgumentException("Max open files must be positive, but was "
+                    + maxOpenFiles);
+        }
+        if (maxParsingThreads < 1) {
+            throw new IllegalArgumentException("Max parsing threads must be positive, but was "
+                    + maxParsingThreads);
+        }
+        this.workWithFile = workWithFile;
+        this.maxOpenFiles = maxOpenFiles;
+        this.maxParsingThreads = maxParsingThreads;
+    }
+
+    /**
+     * Generates reports for all given file pairs. A failure of one file does
+     * not affect the others.
+     *
+     * @param filePairs The source and report file names.
+     * @return One result per file pair, in the order of the input.
+     */
+    public List<FileStatistic> getStatistics(List<FilePair> filePairs) {
+        ExecutorService executor = createExecutor(maxOpenFiles);
+        Semaphore openFiles = new Semaphore(maxOpenFiles);
+        try {
+            List<Future<FileStatistic>> futures = submit(executor, filePairs, maxOpenFiles,
+                    files -> getStatistic(files, openFiles));
+            List<FileStatistic> results = collect(futures);
+            workWithFile.syncReports();
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Generates a report for every regular file below the source directory
+     * whose path relative to it matches the glob, for example "**.csv". Each
+     * report is written to the same relative path below the report
+     * directory; missing directories are created. Every source is read like
+     * {@link WorkWithFile#getStatistic(String, String)} reads it, so
+     * compressed and binary sources, the totals cache and non-ASCII amounts
+     * are handled the same way, and a source that can't be read only fails
+     * its own result.
+     *
+     * @param fromDirectoryName The root of the source tree.
+     * @param glob              The pattern relative source paths must match.
+     * @param toDirectoryName   The root of the mirrored report tree.
+     * @return One result per matching file, ordered by source path.
+     */
+    public List<FileStatistic> getStatistics(String fromDirectoryName, String glob,
+            String toDirectoryName) {
+        Path fromDirectory = Path.of(fromDirectoryName);
+        Path toDirectory = Path.of(toDirectoryName);
+        List<FilePair> filePairs = findFiles(fromDirectory, glob).stream()
+                .map(source -> new FilePair(source.toString(),
+                        toDirectory.resolve(fromDirectory.relativize(source)).toString()))
+                .collect(Collectors.toList());
+        ExecutorService executor = createExecutor(maxOpenFiles + maxParsingThreads);
+        Semaphore openFiles = new Semaphore(maxOpenFiles);
+        Semaphore parsingThreads = new Semaphore(maxParsingThreads);
+        try {
+            List<Future<FileStatistic>> futures = submit(executor, filePairs,
+                    maxOpenFiles + maxParsingThreads,
+                    files -> getStatisticInStages(files, openFiles, parsingThreads));
+            List<FileStatistic> results = collect(futures);
+            workWithFile.syncReports();
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Submits a task per file pair, but waits before each submission until
+     * fewer than {@code maxTasks} tasks are running, so a large batch doesn't
+     * start a thread per file at once.
+     */
+    private List<Future<FileStatistic>> submit(ExecutorService executor,
+            List<FilePair> filePairs, int maxTasks, FileTask task) {
+        Semaphore runningTasks = new Semaphore(maxTasks);
+        List<Future<FileStatistic>> futures = new ArrayList<>(filePairs.size());
+        try {
+            for (FilePair files : filePairs) {
+                runningTasks.acquire();
+                futures.add(executor.submit(() -> {
+                    try {
+                        return task.run(files);
+                    } finally {
+                        runningTasks.release();
+                    }
+                }));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while computing statistics", e);
+        }
+        return futures;
+    }
+
+    private List<Path> findFiles(Path fromDirectory, String glob) {
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher(GLOB_SYNTAX + glob);
+        try (Stream<Path> paths = Files.walk(fromDirectory)) {
+            return paths.filter(Files::isRegularFile)
+                    .filter(path -> matcher.matches(fromDirectory.relativize(path)))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException | UncheckedIOException e) {
+            throw new RuntimeException("Can't list files in directory: " + fromDirectory, e);
+        }
+    }
+
+    private FileStatistic getStatisticInStages(FilePair files, Semaphore openFiles,
+            Semaphore parsingThreads) throws InterruptedException {
+        StatisticEvent event = new StatisticEvent();
+        event.begin();
+        try {
+            Totals totals = calculateTotals(files.getFromFileName(), openFiles, parsingThreads);
+            String report = workWithFile.publishReport(totals, files.getFromFileName(), event,
+                    result -> writeReport(files.getToFileName(), result, openFiles));
+            return FileStatistic.success(files, report);
+        } catch (RuntimeException e) {
+            return FileStatistic.failure(files, e);
+        }
+    }
+
+    /**
+     * Reads the source in stages: every buffer is filled while holding an
+     * open file permit and parsed while holding a parsing permit, so neither
+     * limit caps the other. The source is opened anew at the next position
+     * for every buffer and closed before the permit is released, and the
+     * buffer is only borrowed from the pool of the {@link WorkWithFile} once
+     * the permit is held, so a file waiting for a permit holds neither.
+     * Gzip and binary sources, and any source with a default charset that is
+     * not ASCII-transparent, can't be split that way and hold both permits
+     * while they are read.
+     */
+    private Totals calculateTotals(String fromFileName, Semaphore openFiles,
+            Semaphore parsingThreads) throws InterruptedException {
+        if (workWithFile.isByteLevelSource(fromFileName)) {
+            return workWithFile.readAndCalculateTotals(fromFileName,
+                    source -> readInStages(source, openFiles, parsingThreads));
+        }
+        return readHoldingBothPermits(fromFileName, openFiles, parsingThreads);
+    }
+
+    private Totals readInStages(Path source, Semaphore openFiles, Semaphore parsingThreads)
+            throws IOException {
+        Totals totals = new Totals();
+        TotalsParser parser = new TotalsParser(totals);
+        ByteBufferPool bufferPool = workWithFile.getBufferPool();
+        long position = 0;
+        while (true) {
+            ByteBuffer buffer = null;
+            try {
+                acquire(openFiles);
+                try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+                    buffer = bufferPool.acquire();
+                    long start = System.nanoTime();
+                    int read = channel.read(buffer, position);
+                    parser.addReadNanos(System.nanoTime() - start);
+                    if (read == -1) {
+                        break;
+                    }
+                    position += read;
+                } finally {
+                    openFiles.release();
+                }
+                acquire(parsingThreads);
+                try {
+                    parser.parse(buffer, 0, buffer.position());
+                } finally {
+                    parsingThreads.release();
+                }
+            } finally {
+                if (buffer != null) {
+                    bufferPool.release(buffer);
+                }
+            }
+        }
+        parser.finish();
+        if (totals.nonAsciiAmounts == 0) {
+            return totals;
+        }
+        try {
+            return readHoldingBothPermits(source.toString(), openFiles, parsingThreads);
+        } catch (InterruptedException e) {
+            throw interrupted(e);
+        }
+    }
+
+    private Totals readHoldingBothPermits(String fromFileName, Semaphore openFiles,
+            Semaphore parsingThreads) throws InterruptedException {
+        openFiles.acquire();
+        try {
+            parsingThreads.acquire();
+            try {
+                if (workWithFile.isByteLevelSource(fromFileName)) {
+                    return workWithFile.readDecoded(fromFileName);
+                }
+                return workWithFile.readAndCalculateTotals(fromFileName, ReadMode.BUFFERED);
+            } finally {
+                parsingThreads.release();
+            }
+        } finally {
+            openFiles.release();
+        }
+    }
+
+    private static void acquire(Semaphore permits) throws InterruptedIOException {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            throw interrupted(e);
+        }
+    }
+
+    private static InterruptedIOException interrupted(InterruptedException e) {
+        Thread.currentThread().interrupt();
+        InterruptedIOException exception = new InterruptedIOException(
+                "Interrupted while waiting for a permit");
+        exception.initCause(e);
+        return exception;
+    }
+
+    private void writeReport(String toFileName, String report, Semaphore openFiles) {
+        openFiles.acquireUninterruptibly();
+        try {
+            Path parent = Path.of(toFileName).toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            workWithFile.writeToFile(toFileName, report);
+        } catch (IOException e) {
+            throw new RuntimeException("Can't create directory for file: " + toFileName, e);
+        } finally {
+            openFiles.release();
+        }
+    }
+
+    private FileStatistic getStatistic(FilePair files, Semaphore openFiles)
+            throws InterruptedException {
+        openFiles.acquire();
+        try {
+            String report = workWithFile.getStatistic(files.getFromFileName(),
+                    files.getToFileName());
+            return FileStatistic.success(files, report);
+        } catch (RuntimeException e) {
+            return FileStatistic.failure(files, e);
+        } finally {
+            openFiles.release();
+        }
+    }
+
+    private List<FileStatistic> collect(List<Future<FileStatistic>> futures) {
+        List<FileStatistic> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<FileStatistic> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while computing statistics", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Can't compute statistic", e.getCause());
+        }
+        return results;
+    }
+
+    /**
+     * Computes the result of one file pair.
+     */
+    private interface FileTask {
+        FileStatistic run(FilePair files) throws InterruptedException;
+    }
+
+    /**
+     * Returns an executor that starts a virtual thread per task when the
+     * runtime provides them, or a fixed pool of the given number of platform
+     * threads otherwise.
+     */
+    static ExecutorService createExecutor(int platformThreads) {
+        try {
+            return (ExecutorService) Executors.class.getMethod(VIRTUAL_EXECUTOR_FACTORY)
+                    .invoke(null);
+        } catch (ReflectiveOperationException e) {
+            // Virtual threads are not available, bound the platform threads instead
+            return Executors.newFixedThreadPool(platformThreads);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package core.basesyntax;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event emitted for every {@link WorkWithFile#getStatistic}
+ * call. The event duration covers the whole call; the phase durations are
+ * stored as fields.
+ *
+ * <p>When the event is disabled, {@link #shouldCommit()} is false and none of
+ * the fields are filled, so the JIT can remove the event object entirely.
+ */
+@Name("core.basesyntax.Statistic")
+@Label("Statistic")
+@Category("Work With File")
+@Description("Reading, parsing and reporting one source file")
+@StackTrace(false)
+class StatisticEvent extends Event {
+    @Label("Source")
+    String source;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    @Label("Lines")
+    long lines;
+
+    @Label("Malformed Lines")
+    long malformedLines;
+
+    @Label("Wrong Field Count Lines")
+    long wrongFieldCountLines;
+
+    @Label("Non-Numeric Lines")
+    long nonNumericLines;
+
+    @Label("Overflow Lines")
+    long overflowLines;
+
+    @Label("Unknown Operation Lines")
+    long unknownOperationLines;
+
+    @Label("Read Duration")
+    @Timespan
+    long readDuration;
+
+    @Label("Parse Duration")
+    @Timespan
+    long parseDuration;
+
+    @Label("Create Report Duration")
+    @Timespan
+    long createReportDuration;
+
+    @Label("Write To File Duration")
+    @Timespan
+    long writeToFileDuration;
+
+    /**
+     * Ends the event and commits it with the given measurements if the
+     * recording is enabled and the event passes its threshold.
+     */
+    void commit(String fromFileName, Totals totals, long createReportNanos,
+            long writeToFileNanos) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+        source = fromFileName;
+        bytes = totals.bytes;
+        lines = totals.lines;
+        malformedLines = totals.getMalformedLines();
+        wrongFieldCountLines = totals.getSkippedLines(SkipReason.WRONG_FIELD_COUNT);
+        nonNumericLines = totals.getSkippedLines(SkipReason.NON_NUMERIC);
+        overflowLines = totals.getSkippedLines(SkipReason.OVERFLOW);
+        unknownOperationLines = totals.getSkippedLines(SkipReason.UNKNOWN_OPERATION);
+        readDuration = totals.readNanos;
+        parseDuration = totals.parseNanos;
+        createReportDuration = createReportNanos;
+        writeToFileDuration = writeToFileNanos;
+        commit();
+    }
+}
@@ -0,0 +1,151 @@
+package core.basesyntax;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Process-wide counters and latency histograms of every phase of
+ * {@link WorkWithFile#getStatistic}.
+ *
+ * <p>Parsers count lines and bytes in plain fields of {@link Totals}, which are
+ * published here once per call, so the per-line cost is a field increment.
+ * In {@link ReadMode#PARALLEL} mode the read and parse durations are summed
+ * over all chunks.
+ */
+public final class StatisticMetrics implements StatisticMetricsMXBean {
+    public static final String OBJECT_NAME = "core.basesyntax:type=StatisticMetrics";
+
+    private static final StatisticMetrics INSTANCE = register(new StatisticMetrics());
+
+    private final LatencyHistogram read = new LatencyHistogram();
+    private final LatencyHistogram parse = new LatencyHistogram();
+    private final LatencyHistogram createReport = new LatencyHistogram();
+    private final LatencyHistogram writeToFile = new LatencyHistogram();
+    private final LongAdder bytesRead = new LongAdder();
+    private final LongAdder linesParsed = new LongAdder();
+    private final LongAdder[] skippedLines = new LongAdder[SkipReason.COUNT];
+    private final LongAdder reportsWritten = new LongAdder();
+    private final LongAdder bufferPoolExhaustions = new LongAdder();
+    private final LongAdder indexSaveFailures = new LongAdder();
+
+    private StatisticMetrics() {
+        for (int i = 0; i < skippedLines.length; i++) {
+            skippedLines[i] = new LongAdder();
+        }
+    }
+
+    public static StatisticMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public PhaseTimings getRead() {
+        return new PhaseTimings(read);
+    }
+
+    @Override
+    public PhaseTimings getParse() {
+        return new PhaseTimings(parse);
+    }
+
+    @Override
+    public PhaseTimings getCreateReport() {
+        return new PhaseTimings(createReport);
+    }
+
+    @Override
+    public PhaseTimings getWriteToFile() {
+        return new PhaseTimings(writeToFile);
+    }
+
+    @Override
+    public long getBytesRead() {
+        return bytesRead.sum();
+    }
+
+    @Override
+    public long getLinesParsed() {
+        return linesParsed.sum();
+    }
+
+    @Override
+    public long getMalformedLines() {
+        return getWrongFieldCountLines() + getNonNumericLines() + getOverflowLines();
+    }
+
+    @Override
+    public long getWrongFieldCountLines() {
+        return getSkippedLines(SkipReason.WRONG_FIELD_COUNT);
+    }
+
+    @Override
+    public long getNonNumericLines() {
+        return getSkippedLines(SkipReason.NON_NUMERIC);
+    }
+
+    @Override
+    public long getOverflowLines() {
+        return getSkippedLines(SkipReason.OVERFLOW);
+    }
+
+    @Override
+    public long getUnknownOperationLines() {
+        return getSkippedLines(SkipReason.UNKNOWN_OPERATION);
+    }
+
+    @Override
+    public long getReportsWritten() {
+        return reportsWritten.sum();
+    }
+
+    @Override
+    public long getBufferPoolExhaustions() {
+        return bufferPoolExhaustions.sum();
+    }
+
+    void countBufferPoolExhaustion() {
+        bufferPoolExhaustions.increment();
+    }
+
+    @Override
+    public long getIndexSaveFailures() {
+        return indexSaveFailures.sum();
+    }
+
+    void countIndexSaveFailure() {
+        indexSaveFailures.increment();
+    }
+
+    void record(Totals totals, long createReportNanos, long writeToFileNanos) {
+        read.record(totals.readNanos);
+        parse.record(totals.parseNanos);
+        createReport.record(createReportNanos);
+        writeToFile.record(writeToFileNanos);
+        bytesRead.add(totals.bytes);
+        linesParsed.add(totals.lines);
+        for (int i = 0; i < skippedLines.length; i++) {
+            skippedLines[i].add(totals.skippedLines[i]);
+        }
+        reportsWritten.increment();
+    }
+
+    private long getSkippedLines(SkipReason skipReason) {
+        return skippedLines[skipReason.ordinal()].sum();
+    }
+
+    private static StatisticMetrics register(StatisticMetrics metrics) {
+        try {
+            ManagementFactory.getPlatformMBeanServer()
+                    .registerMBean(metrics, new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException e) {
+            // Another class loader already exposes its metrics under this name
+            return metrics;
+        } catch (JMException e) {
+            throw new RuntimeException("Can't register MBean " + OBJECT_NAME, e);
+        }
+        return metrics;
+    }
+}
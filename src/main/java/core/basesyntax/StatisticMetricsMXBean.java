@@ -0,0 +1,51 @@
+package core.basesyntax;
+
+/**
+ * Management interface of {@link StatisticMetrics}, registered on the
+ * platform MBean server as {@value StatisticMetrics#OBJECT_NAME}.
+ */
+public interface StatisticMetricsMXBean {
+    PhaseTimings getRead();
+
+    PhaseTimings getParse();
+
+    PhaseTimings getCreateReport();
+
+    PhaseTimings getWriteToFile();
+
+    long getBytesRead();
+
+    long getLinesParsed();
+
+    /**
+     * Returns the lines skipped because of a wrong field count, a non-numeric
+     * amount or an amount overflow.
+     */
+    long getMalformedLines();
+
+    long getWrongFieldCountLines();
+
+    long getNonNumericLines();
+
+    long getOverflowLines();
+
+    /**
+     * Returns the well-formed lines skipped because their operation is
+     * neither supply nor buy.
+     */
+    long getUnknownOperationLines();
+
+    long getReportsWritten();
+
+    /**
+     * Returns how often a {@link ByteBufferPool} had no buffer left and a
+     * temporary one was allocated, summed over all pools.
+     */
+    long getBufferPoolExhaustions();
+
+    /**
+     * Returns how often the sidecar of {@link ReadMode#INDEXED} could not be
+     * saved. The reads themselves succeeded.
+     */
+    long getIndexSaveFailures();
+}
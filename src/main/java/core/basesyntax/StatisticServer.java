@@ -0,0 +1,298 @@
+package core.basesyntax;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * A long-running daemon that serves reports of {@link WorkWithFile} over
+ * HTTP on a loopback port, so a report costs one request instead of a JVM
+ * start. The JVM stays warm, and so do the {@link TotalsCache} and the
+ * progress of {@link ReadMode#INCREMENTAL} of the served instance.
+ *
+ * <p>The only endpoint is
+ * {@code /statistic?from=<source>[&to=<report>][&mode=<read mode>]}. It
+ * answers with the report in the default charset, the same bytes
+ * {@code getStatistic} writes, and also writes the report file if {@code to}
+ * is given. The mode is a {@link ReadMode} name and defaults to
+ * {@link ReadMode#BUFFERED}. A missing source parameter or an unknown mode
+ * is answered with 400, a failing report with 500 and the error message.
+ *
+ * <p>Both paths are relative to the root directory given to the constructor;
+ * an absolute path or one that leaves the root through ".." or through a
+ * symbolic link is answered with 403. A request that only reads may use GET,
+ * but one that writes a file, a report or the block index of
+ * {@link ReadMode#INDEXED}, must use POST and must not carry an
+ * {@code Origin} header, so a web page can't make a browser overwrite files
+ * through a cross-site request.
+ *
+ * <p>Requests are handled on the executor given to the constructor, for
+ * example the one from {@link #createExecutor(int)}, which uses virtual
+ * threads where the runtime has them.
+ */
+public class StatisticServer implements AutoCloseable {
+    public static final int DEFAULT_PORT = 8642;
+
+    private static final String CONTEXT_PATH = "/statistic";
+    private static final String GET_METHOD = "GET";
+    private static final String POST_METHOD = "POST";
+    private static final String ORIGIN = "Origin";
+    private static final String PARENT_DIRECTORY = "..";
+    private static final String FROM_PARAMETER = "from";
+    private static final String TO_PARAMETER = "to";
+    private static final String MODE_PARAMETER = "mode";
+    private static final String PARAMETER_DELIMITER = "&";
+    private static final String VALUE_DELIMITER = "=";
+    private static final String CONTENT_TYPE = "Content-Type";
+    private static final String REPORT_TYPE = "text/csv; charset=";
+    private static final String ERROR_TYPE = "text/plain; charset=";
+    private static final String ALLOW = "Allow";
+    private static final int OK = 200;
+    private static final int BAD_REQUEST = 400;
+    private static final int FORBIDDEN = 403;
+    private static final int METHOD_NOT_ALLOWED = 405;
+    private static final int INTERNAL_SERVER_ERROR = 500;
+    private static final int DEFAULT_BACKLOG = 0;
+    private static final int CACHE_ENTRIES = 1024;
+    private static final int STOP_DELAY_SECONDS = 5;
+
+    private final WorkWithFile workWithFile;
+    private final Path rootDirectory;
+    private final HttpServer server;
+
+    /**
+     * Creates a server on the given loopback port. It does not accept
+     * requests before {@link #start()}.
+     *
+     * @param workWithFile  The instance that computes every report.
+     * @param rootDirectory The directory every source and report path is
+     *                      resolved against.
+     * @param port          The port, or 0 for any free port.
+     * @param executor      The executor that handles the requests.
+     * @throws IOException If the root directory doesn't exist or the port
+     *                     can't be bound.
+     */
+    public StatisticServer(WorkWithFile workWithFile, Path rootDirectory, int port,
+            Executor executor) throws IOException {
+        this.workWithFile = workWithFile;
+        this.rootDirectory = rootDirectory.toRealPath();
+        this.server = HttpServer.create(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), port), DEFAULT_BACKLOG);
+        server.createContext(CONTEXT_PATH, this::handle);
+        server.setExecutor(executor);
+    }
+
+    /**
+     * Starts a daemon on the port given as the first argument, or on
+     * {@value #DEFAULT_PORT}, that serves the files under the directory given
+     * as the second argument, or under the working directory. The served
+     * instance keeps the totals of up to 1024 unchanged sources cached. The
+     * daemon runs until the JVM is stopped.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        Path rootDirectory = Path.of(args.length > 1 ? args[1] : "");
+        int processors = Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = createExecutor(processors);
+        WorkWithFile workWithFile = new WorkWithFile(processors,
+                new TotalsCache(CACHE_ENTRIES));
+        StatisticServer server = new StatisticServer(workWithFile, rootDirectory, port, executor);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            executor.shutdown();
+            workWithFile.close();
+        }));
+        server.start();
+    }
+
+    /**
+     * Returns an executor that starts a virtual thread per request when the
+     * runtime provides them (Java 21+), or a fixed pool of the given number
+     * of platform threads otherwise.
+     */
+    public static ExecutorService createExecutor(int platformThreads) {
+        return StatisticBatch.createExecutor(platformThreads);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Returns the port the server listens on, which is useful after binding
+     * to port 0.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops accepting requests and waits up to 5 seconds for the requests in
+     * progress. The executor is not shut down.
+     */
+    @Override
+    public void close() {
+        stop(STOP_DELAY_SECONDS);
+    }
+
+    /**
+     * Stops accepting requests and waits up to the given number of seconds
+     * for the requests in progress. The executor is not shut down.
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            if (!GET_METHOD.equals(method) && !POST_METHOD.equals(method)) {
+                exchange.getResponseHeaders().set(ALLOW, GET_METHOD + ", " + POST_METHOD);
+                send(exchange, METHOD_NOT_ALLOWED, "Only GET and POST are supported");
+                return;
+            }
+            Map<String, String> parameters = parseQuery(exchange.getRequestURI().getRawQuery());
+            String fromFileName = parameters.get(FROM_PARAMETER);
+            if (fromFileName == null || fromFileName.isEmpty()) {
+                send(exchange, BAD_REQUEST, "Missing parameter: " + FROM_PARAMETER);
+                return;
+            }
+            ReadMode readMode;
+            try {
+                readMode = ReadMode.valueOf(parameters.getOrDefault(MODE_PARAMETER,
+                        ReadMode.BUFFERED.name()));
+            } catch (IllegalArgumentException e) {
+                send(exchange, BAD_REQUEST, "Unknown read mode: " + parameters.get(MODE_PARAMETER));
+                return;
+            }
+            String toFileName = parameters.get(TO_PARAMETER);
+            boolean writes = toFileName != null || readMode == ReadMode.INDEXED;
+            if (writes && !POST_METHOD.equals(method)) {
+                exchange.getResponseHeaders().set(ALLOW, POST_METHOD);
+                send(exchange, METHOD_NOT_ALLOWED,
+                        "Writing a report or a block index requires POST");
+                return;
+            }
+            if (writes && exchange.getRequestHeaders().containsKey(ORIGIN)) {
+                send(exchange, FORBIDDEN, "Cross-origin requests can't write files");
+                return;
+            }
+            Path from = resolve(fromFileName, false);
+            Path to = toFileName == null ? null : resolve(toFileName, true);
+            if (from == null || (toFileName != null && to == null)) {
+                send(exchange, FORBIDDEN, "Paths must be relative to the root directory");
+                return;
+            }
+            String report;
+            try {
+                report = to == null
+                        ? workWithFile.createStatistic(from.toString(), readMode)
+                        : workWithFile.getStatistic(from.toString(), to.toString(), readMode);
+            } catch (RuntimeException e) {
+                send(exchange, INTERNAL_SERVER_ERROR, String.valueOf(e.getMessage()));
+                return;
+            }
+            send(exchange, OK, report);
+        }
+    }
+
+    /**
+     * Resolves a path against the root directory, or returns null if it is
+     * absolute, names a parent directory or doesn't stay under the root once
+     * symbolic links are followed. The link a report replaces is not
+     * followed, as the report is renamed over the link itself.
+     *
+     * @param fileName The path relative to the root directory.
+     * @param target   Whether the path is a report target, which is checked
+     *                 by the real path of its parent directory.
+     */
+    private Path resolve(String fileName, boolean target) {
+        Path path;
+        try {
+            path = Path.of(fileName);
+        } catch (InvalidPathException e) {
+            return null;
+        }
+        if (path.isAbsolute() || path.getRoot() != null) {
+            return null;
+        }
+        for (Path name : path) {
+            if (PARENT_DIRECTORY.equals(name.toString())) {
+                return null;
+            }
+        }
+        Path resolved = rootDirectory.resolve(path).normalize();
+        if (resolved.equals(rootDirectory)) {
+            return null;
+        }
+        Path real;
+        try {
+            real = target
+                    ? toRealPath(resolved.getParent()).resolve(resolved.getFileName())
+                    : toRealPath(resolved);
+        } catch (IOException e) {
+            return null;
+        }
+        return real.startsWith(rootDirectory) && !real.equals(rootDirectory) ? real : null;
+    }
+
+    /**
+     * Returns the real path of the deepest existing ancestor of the path,
+     * with the names below it appended, so a missing file is still checked
+     * against the links of the directories above it.
+     */
+    private static Path toRealPath(Path path) throws IOException {
+        try {
+            return path.toRealPath();
+        } catch (NoSuchFileException e) {
+            Path parent = path.getParent();
+            if (parent == null) {
+                throw e;
+            }
+            return toRealPath(parent).resolve(path.getFileName());
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> parameters = new HashMap<>();
+        if (rawQuery == null) {
+            return parameters;
+        }
+        for (String parameter : rawQuery.split(PARAMETER_DELIMITER)) {
+            int delimiter = parameter.indexOf(VALUE_DELIMITER);
+            if (delimiter > 0) {
+                parameters.putIfAbsent(decode(parameter.substring(0, delimiter)),
+                        decode(parameter.substring(delimiter + 1)));
+            }
+        }
+        return parameters;
+    }
+
+    private static String decode(String value) {
+        return URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        Charset charset = Charset.defaultCharset();
+        byte[] bytes = body.getBytes(charset);
+        exchange.getResponseHeaders().set(CONTENT_TYPE,
+                (status == OK ? REPORT_TYPE : ERROR_TYPE) + charset.name());
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package core.basesyntax;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Regenerates the report of a CSV source whenever the source changes, as
+ * reported by a {@link WatchService}, instead of recomputing every file on a
+ * fixed schedule.
+ *
+ * <p>Each watched source directory has a report directory; the report of
+ * {@code <from>/name.csv} is {@code <to>/name.csv}. Subdirectories are not
+ * watched. A burst of change events for the same file is debounced: the
+ * report is regenerated once the file has been quiet for the debounce
+ * period. Reports are regenerated one at a time in
+ * {@link ReadMode#INCREMENTAL} mode, so a file that was appended to is only
+ * parsed from where the previous report stopped, and a replaced or shrunk
+ * file is recomputed from the start. Sources must therefore be append-only
+ * or replaced as a whole; see {@link ReadMode#INCREMENTAL}.
+ *
+ * <p>A report that can't be regenerated, for example because the source was
+ * deleted meanwhile, is counted as a failure and retried on the next change.
+ */
+public class StatisticWatcher implements AutoCloseable {
+    public static final Duration DEFAULT_DEBOUNCE = Duration.ofMillis(200);
+
+    private static final String SOURCE_GLOB = "glob:*.csv";
+
+    private final WorkWithFile workWithFile;
+    private final long debounceNanos;
+    private final WatchService watchService;
+    private final PathMatcher sourceMatcher =
+            FileSystems.getDefault().getPathMatcher(SOURCE_GLOB);
+    private final Map<Path, Path> reportDirectories = new ConcurrentHashMap<>();
+    private final Map<Path, Long> lastChanges = new ConcurrentHashMap<>();
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final LongAdder regenerations = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * Creates a watcher that debounces changes for
+     * {@link #DEFAULT_DEBOUNCE}.
+     *
+     * @param workWithFile The instance that computes every report; it keeps
+     *                     the incremental progress of every source.
+     * @throws IOException If the watch service can't be created.
+     */
+    public StatisticWatcher(WorkWithFile workWithFile) throws IOException {
+        this(workWithFile, DEFAULT_DEBOUNCE);
+    }
+
+    /**
+     * Creates a watcher that regenerates a report once its source has not
+     * changed for the given period.
+     *
+     * @param workWithFile The instance that computes every report.
+     * @param debounce     How long a source must be quiet before its report
+     *                     is regenerated.
+     * @throws IOException If the watch service can't be created.
+     */
+    public StatisticWatcher(WorkWithFile workWithFile, Duration debounce) throws IOException {
+        if (debounce.isNegative()) {
+            throw new IllegalArgumentException("Debounce must not be negative, but was "
+                    + debounce);
+        }
+        this.workWithFile = workWithFile;
+        this.debounceNanos = debounce.toNanos();
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "statistic-regenerator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        Thread eventThread = new Thread(this::processEvents, "statistic-watcher");
+        eventThread.setDaemon(true);
+        eventThread.start();
+    }
+
+    /**
+     * Watches every source in {@code args[2i]} and writes its report to
+     * {@code args[2i + 1]} until the JVM is stopped. The watcher only runs
+     * daemon threads, so the main thread waits for the shutdown.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length == 0 || args.length % 2 != 0) {
+            throw new IllegalArgumentException(
+                    "Expected pairs of source and report directories");
+        }
+        WorkWithFile workWithFile = new WorkWithFile();
+        StatisticWatcher watcher = new StatisticWatcher(workWithFile);
+        CountDownLatch closed = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            watcher.close();
+            workWithFile.close();
+            closed.countDown();
+        }));
+        for (int i = 0; i < args.length; i += 2) {
+            watcher.watch(args[i], args[i + 1]);
+        }
+        closed.await();
+    }
+
+    /**
+     * Starts watching the CSV files of a directory and generates the reports
+     * of the files already there, which also records where the incremental
+     * reads start.
+     *
+     * @param fromDirectoryName The directory of the sources.
+     * @param toDirectoryName   The directory of the reports, created if
+     *                          missing; it must differ from the source
+     *                          directory.
+     */
+    public void watch(String fromDirectoryName, String toDirectoryName) {
+        Path fromDirectory = Path.of(fromDirectoryName).toAbsolutePath().normalize();
+        Path toDirectory = Path.of(toDirectoryName).toAbsolutePath().normalize();
+        if (fromDirectory.equals(toDirectory)) {
+            throw new IllegalArgumentException("Reports can't be written to the watched "
+                    + "directory: " + fromDirectory);
+        }
+        try {
+            Files.createDirectories(toDirectory);
+            reportDirectories.put(fromDirectory, toDirectory);
+            fromDirectory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            throw new RuntimeException("Can't watch directory: " + fromDirectory, e);
+        }
+        changedAll(fromDirectory);
+    }
+
+    /**
+     * Returns how many reports were regenerated.
+     */
+    public long getRegenerations() {
+        return regenerations.sum();
+    }
+
+    /**
+     * Returns how many reports could not be regenerated.
+     */
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * Stops watching. A report being regenerated is finished, pending ones
+     * are dropped.
+     */
+    @Override
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            throw new RuntimeException("Can't close watch service", e);
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    private void processEvents() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                Path directory = (Path) key.watchable();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        changedAllQuietly(directory);
+                    } else {
+                        changed(directory.resolve((Path) event.context()));
+                    }
+                }
+                key.reset();
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // The watcher was closed
+        }
+    }
+
+    /**
+     * Same as {@link #changedAll}, but counts a directory that can't be
+     * listed as a failure, so the event thread keeps running.
+     */
+    private void changedAllQuietly(Path directory) {
+        try {
+            changedAll(directory);
+        } catch (RuntimeException e) {
+            failures.increment();
+        }
+    }
+
+    private void changedAll(Path directory) {
+        try (DirectoryStream<Path> sources = Files.newDirectoryStream(directory)) {
+            for (Path source : sources) {
+                changed(source);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Can't list files in directory: " + directory, e);
+        }
+    }
+
+    /**
+     * Records a change of the source. Only the first change of a burst
+     * schedules a regeneration; later ones just move the end of the burst.
+     */
+    private void changed(Path source) {
+        if (!sourceMatcher.matches(source.getFileName())) {
+            return;
+        }
+        if (lastChanges.put(source, System.nanoTime()) == null) {
+            schedule(source, debounceNanos);
+        }
+    }
+
+    private void schedule(Path source, long delayNanos) {
+        try {
+            scheduler.schedule(() -> settle(source), delayNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // The watcher was closed
+        }
+    }
+
+    /**
+     * Regenerates the report if the source has been quiet for the debounce
+     * period, or waits for the rest of the period otherwise.
+     */
+    private void settle(Path source) {
+        Long lastChange = lastChanges.get(source);
+        long quietNanos = System.nanoTime() - lastChange;
+        if (quietNanos < debounceNanos) {
+            schedule(source, debounceNanos - quietNanos);
+            return;
+        }
+        if (!lastChanges.remove(source, lastChange)) {
+            schedule(source, debounceNanos);
+            return;
+        }
+        if (!Files.isRegularFile(source)) {
+            return;
+        }
+        Path report = reportDirectories.get(source.getParent()).resolve(source.getFileName());
+        try {
+            workWithFile.getStatistic(source.toString(), report.toString(),
+                    ReadMode.INCREMENTAL);
+            regenerations.increment();
+        } catch (RuntimeException e) {
+            failures.increment();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package core.basesyntax;
+
+/**
+ * A simple data carrier class to hold the calculated totals.
+ * This is more readable and type-safe than using an array.
+ *
+ * <p>Besides the sums it counts the work done to calculate them, which is
+ * reported to {@link StatisticMetrics} and {@link StatisticEvent}. When
+ * every operation is summed, "supply" and "buy" are still summed into
+ * {@link #supply} and {@link #buy}, and every other operation into
+ * {@link #operations}.
+ */
+class Totals {
+    int supply;
+    int buy;
+    long bytes;
+    long lines;
+    final long[] skippedLines = new long[SkipReason.COUNT];
+    long readNanos;
+    long parseNanos;
+    /**
+     * Lines skipped as non-numeric whose amount holds non-ASCII bytes. Only a
+     * charset decoder can tell whether those are digits.
+     */
+    long nonAsciiAmounts;
+    OperationTotals operations;
+
+    /**
+     * Adds partial totals calculated for another part of the same source.
+     * The sums wrap around exactly like a single sequential pass would, so
+     * the merge order does not change the result.
+     */
+    void add(Totals other) {
+        supply += other.supply;
+        buy += other.buy;
+        bytes += other.bytes;
+        lines += other.lines;
+        for (int i = 0; i < skippedLines.length; i++) {
+            skippedLines[i] += other.skippedLines[i];
+        }
+        readNanos += other.readNanos;
+        parseNanos += other.parseNanos;
+        nonAsciiAmounts += other.nonAsciiAmounts;
+        if (other.operations != null) {
+            if (operations == null) {
+                operations = new OperationTotals();
+            }
+            operations.addAll(other.operations);
+        }
+    }
+
+    /**
+     * Counts one parsed line that was skipped for the given reason, or counted
+     * if the reason is {@code null}.
+     */
+    void countLine(SkipReason skipReason) {
+        lines++;
+        if (skipReason != null) {
+            skippedLines[skipReason.ordinal()]++;
+        }
+    }
+
+    long getSkippedLines(SkipReason skipReason) {
+        return skippedLines[skipReason.ordinal()];
+    }
+
+    /**
+     * Returns the number of lines skipped for any reason but an unknown
+     * operation.
+     */
+    long getMalformedLines() {
+        long malformed = 0;
+        for (SkipReason skipReason : SkipReason.values()) {
+            if (skipReason.isMalformed()) {
+                malformed += getSkippedLines(skipReason);
+            }
+        }
+        return malformed;
+    }
+
+    /**
+     * Returns new totals with the same sums and no recorded work, for results
+     * that are reused without parsing again. The count of non-ASCII amounts
+     * is kept, since it is about the content as well.
+     */
+    Totals copySums() {
+        Totals copy = new Totals();
+        copy.supply = supply;
+        copy.buy = buy;
+        copy.nonAsciiAmounts = nonAsciiAmounts;
+        return copy;
+    }
+}
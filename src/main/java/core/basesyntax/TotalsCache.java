@@ -0,0 +1,194 @@
+package core.basesyntax;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * In-process LRU cache of calculated totals, shared by the
+ * {@link WorkWithFile} instances it is passed to.
+ *
+ * <p>An entry is keyed on the real path of the source and remembers the size,
+ * last-modified time and file key (the inode on Unix) the totals were read
+ * at, so any change that touches one of them makes the next call parse the
+ * file again and replace the entry. A source takes one entry however often it
+ * changes. A rewrite that keeps the size and lands within the same
+ * modification-time tick is not detected.
+ */
+public class TotalsCache {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final int maxEntries;
+    private final Map<Path, Entry> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates a cache that keeps at most {@code maxEntries} files and evicts
+     * the least recently used one when it is full.
+     *
+     * @param maxEntries The maximum number of cached files.
+     */
+    public TotalsCache(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Max entries must be positive, but was "
+                    + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, Entry> eldest) {
+                return size() > TotalsCache.this.maxEntries;
+            }
+        };
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Returns the cached totals of the source, or reads them with the given
+     * reader and caches them. The result is only cached if the file did not
+     * change while it was read.
+     */
+    Totals get(Path source, TotalsReader reader) throws IOException {
+        FileIdentity identity = FileIdentity.of(source);
+        Totals cached = lookup(identity);
+        if (cached != null) {
+            hits.increment();
+            return cached.copySums();
+        }
+        misses.increment();
+        Totals totals = reader.read(source);
+        if (identity.equals(FileIdentity.of(source))) {
+            store(identity, totals.copySums());
+        }
+        return totals;
+    }
+
+    /**
+     * Same as {@link #get}, but returns at once. The file attributes are read
+     * on the executor and a missing entry is read with the asynchronous
+     * reader; cancelling the returned future cancels that read.
+     */
+    CompletableFuture<Totals> getAsync(Path source,
+            Function<Path, CompletableFuture<Totals>> reader, Executor executor) {
+        return AsyncTotalsReader.thenComposeCancellable(
+                CompletableFuture.supplyAsync(() -> identify(source), executor), identity -> {
+                    Totals cached = lookup(identity);
+                    if (cached != null) {
+                        hits.increment();
+                        return CompletableFuture.completedFuture(cached.copySums());
+                    }
+                    misses.increment();
+                    return AsyncTotalsReader.thenComposeCancellable(reader.apply(source),
+                            totals -> {
+                                if (identity.equals(identify(source))) {
+                                    store(identity, totals.copySums());
+                                }
+                                return CompletableFuture.completedFuture(totals);
+                            });
+                });
+    }
+
+    private static FileIdentity identify(Path source) {
+        try {
+            return FileIdentity.of(source);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the cached totals if they were read at the given identity. An
+     * entry read at another identity is stale and removed.
+     */
+    private synchronized Totals lookup(FileIdentity identity) {
+        Entry entry = entries.get(identity.path);
+        if (entry == null) {
+            return null;
+        }
+        if (!entry.identity.equals(identity)) {
+            entries.remove(identity.path);
+            return null;
+        }
+        return entry.totals;
+    }
+
+    private synchronized void store(FileIdentity identity, Totals totals) {
+        entries.put(identity.path, new Entry(identity, totals));
+    }
+
+    private static final class Entry {
+        private final FileIdentity identity;
+        private final Totals totals;
+
+        private Entry(FileIdentity identity, Totals totals) {
+            this.identity = identity;
+            this.totals = totals;
+        }
+    }
+
+    private static final class FileIdentity {
+        private final Path path;
+        private final long size;
+        private final FileTime lastModified;
+        private final Object fileKey;
+
+        private FileIdentity(Path path, BasicFileAttributes attributes) {
+            this.path = path;
+            this.size = attributes.size();
+            this.lastModified = attributes.lastModifiedTime();
+            this.fileKey = attributes.fileKey();
+        }
+
+        static FileIdentity of(Path source) throws IOException {
+            Path path = source.toRealPath();
+            return new FileIdentity(path, Files.readAttributes(path, BasicFileAttributes.class));
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof FileIdentity)) {
+                return false;
+            }
+            FileIdentity identity = (FileIdentity) other;
+            return size == identity.size
+                    && lastModified.equals(identity.lastModified)
+                    && path.equals(identity.path)
+                    && Objects.equals(fileKey, identity.fileKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, size, lastModified, fileKey);
+        }
+    }
+}
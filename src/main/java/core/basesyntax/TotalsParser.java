@@ -0,0 +1,369 @@
+package core.basesyntax;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Byte-level parser that accumulates "supply" and "buy" amounts straight into
+ * a {@link Totals} without creating any per-line objects.
+ *
+ * <p>The parser is a small state machine, so input may be fed in arbitrary
+ * slices: a record split between two buffers is carried over in the parser
+ * state rather than copied. It accepts exactly the lines the original
+ * {@code readLine()}/{@code split(",")}/{@code Integer.parseInt} pipeline
+ * accepts for ASCII input: lines end with {@code \n}, {@code \r} or
+ * {@code \r\n}, trailing empty fields are ignored, the amount may carry one
+ * leading sign and must fit into an {@code int}. Every other line is skipped.
+ *
+ * <p>Complete lines inside a slice take a fast path: a {@link DelimiterScanner}
+ * locates the delimiters and line terminators, and the fields are then checked
+ * in place. Only a line that is cut by the end of a slice goes through the
+ * byte-by-byte state machine.
+ *
+ * <p>The parser also counts bytes, lines, skipped lines by {@link SkipReason}
+ * and the time spent into the same {@link Totals}. Nothing is thrown for a
+ * bad line, so skipping costs the same as accepting. A non-numeric amount
+ * with non-ASCII bytes is counted in {@link Totals#nonAsciiAmounts}, because
+ * it may hold digits of another script that only decoding reveals.
+ *
+ * <p>Given {@link OperationTotals}, the parser sums every operation instead
+ * of only "supply" and "buy"; lines with an empty operation or the
+ * operation "result", whose name the report reserves for its last row, are
+ * then the only ones skipped as an unknown operation.
+ *
+ * <p>An optional {@link RecordListener} is told about every counted record,
+ * which lets other formats be written from the same parse.
+ *
+ * <p>Instances are not thread-safe; use one parser per thread.
+ */
+class TotalsParser {
+    private static final byte[] SUPPLY_BYTES = {'s', 'u', 'p', 'p', 'l', 'y'};
+    private static final byte[] BUY_BYTES = {'b', 'u', 'y'};
+    private static final byte[] RESULT_BYTES = {'r', 'e', 's', 'u', 'l', 't'};
+    private static final byte DELIMITER = ',';
+    private static final byte LINE_FEED = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+    private static final byte PLUS = '+';
+    private static final byte MINUS = '-';
+
+    private static final int OPERATION_FIELD = 0;
+    private static final int AMOUNT_FIELD = 1;
+    private static final int TRAILING_FIELDS = 2;
+    private static final int INITIAL_OPERATION_BYTES = 32;
+
+    private final Totals totals;
+    private final DelimiterScanner scanner;
+    private final RecordListener listener;
+    private final OperationTotals operations;
+    private ByteBuffer operationBytes;
+
+    private int field;
+    private int lineLength;
+    private int operationLength;
+    private boolean maybeSupply;
+    private boolean maybeBuy;
+    private int amountLength;
+    private boolean negative;
+    private boolean hasDigits;
+    private boolean notNumeric;
+    private boolean nonAsciiAmount;
+    private long magnitude;
+    private boolean trailingContent;
+    private boolean afterCarriageReturn;
+
+    TotalsParser(Totals totals) {
+        this(totals, DelimiterScanners.preferred());
+    }
+
+    TotalsParser(Totals totals, DelimiterScanner scanner) {
+        this(totals, scanner, null);
+    }
+
+    TotalsParser(Totals totals, DelimiterScanner scanner, RecordListener listener) {
+        this(totals, scanner, listener, null);
+    }
+
+    TotalsParser(Totals totals, OperationTotals operations) {
+        this(totals, DelimiterScanners.preferred(), null, operations);
+    }
+
+    TotalsParser(Totals totals, DelimiterScanner scanner, RecordListener listener,
+            OperationTotals operations) {
+        this.totals = totals;
+        this.scanner = scanner;
+        this.listener = listener;
+        this.operations = operations;
+        if (operations != null) {
+            operationBytes = ByteBuffer.allocate(INITIAL_OPERATION_BYTES);
+        }
+        resetLine();
+    }
+
+    /**
+     * Feeds the bytes between the absolute indexes {@code from} (inclusive)
+     * and {@code to} (exclusive) of the buffer into the parser. The buffer's
+     * position and limit are left untouched.
+     */
+    void parse(ByteBuffer buffer, int from, int to) {
+        long start = System.nanoTime();
+        scanner.reset();
+        int position = from;
+        while (position < to && !isAtLineStart()) {
+            accept(buffer.get(position++));
+        }
+        position = parseCompleteLines(buffer, position, to);
+        for (int i = position; i < to; i++) {
+            accept(buffer.get(i));
+        }
+        totals.bytes += to - from;
+        totals.parseNanos += System.nanoTime() - start;
+    }
+
+    /**
+     * Adds the time a reader spent filling the buffers of this range.
+     */
+    void addReadNanos(long nanos) {
+        totals.readNanos += nanos;
+    }
+
+    /**
+     * Completes the last line if the input did not end with a line
+     * terminator.
+     */
+    void finish() {
+        if (lineLength > 0) {
+            endLine();
+        }
+        afterCarriageReturn = false;
+    }
+
+    private boolean isAtLineStart() {
+        return lineLength == 0 && !afterCarriageReturn;
+    }
+
+    /**
+     * Parses every line that ends inside {@code [from, to)} and returns the
+     * index of the first byte that is not part of such a line.
+     */
+    private int parseCompleteLines(ByteBuffer buffer, int from, int to) {
+        int lineStart = from;
+        while (lineStart < to) {
+            int comma = scanner.nextDelimiter(buffer, lineStart, to);
+            if (comma == to) {
+                return lineStart;
+            }
+            int lineEnd = comma;
+            SkipReason skipReason = SkipReason.WRONG_FIELD_COUNT;
+            if (buffer.get(comma) == DELIMITER) {
+                int amountEnd = scanner.nextDelimiter(buffer, comma + 1, to);
+                lineEnd = skipDelimiters(buffer, amountEnd, to);
+                if (lineEnd == to) {
+                    return lineStart;
+                }
+                skipReason = parseLine(buffer, lineStart, comma, amountEnd, lineEnd);
+            }
+            totals.countLine(skipReason);
+            if (buffer.get(lineEnd) == CARRIAGE_RETURN) {
+                if (lineEnd + 1 == to) {
+                    afterCarriageReturn = true;
+                    return to;
+                }
+                if (buffer.get(lineEnd + 1) == LINE_FEED) {
+                    lineEnd++;
+                }
+            }
+            lineStart = lineEnd + 1;
+        }
+        return lineStart;
+    }
+
+    /**
+     * Returns the index of the line terminator that follows the remaining
+     * fields of a line, or {@code to} if the line does not end in the range.
+     */
+    private int skipDelimiters(ByteBuffer buffer, int from, int to) {
+        int position = from;
+        while (position < to && buffer.get(position) == DELIMITER) {
+            position = scanner.nextDelimiter(buffer, position + 1, to);
+        }
+        return position;
+    }
+
+    /**
+     * Checks a complete line whose amount field lies between {@code comma} and
+     * {@code amountEnd} and adds the amount to the totals if the line is well
+     * formed.
+     *
+     * @return Why the line was skipped, or {@code null} if it was counted.
+     */
+    private SkipReason parseLine(ByteBuffer buffer, int lineStart, int comma, int amountEnd,
+            int lineEnd) {
+        if (amountEnd == comma + 1) {
+            return SkipReason.WRONG_FIELD_COUNT;
+        }
+        for (int i = amountEnd; i < lineEnd; i++) {
+            if (buffer.get(i) != DELIMITER) {
+                return SkipReason.WRONG_FIELD_COUNT;
+            }
+        }
+        long amount = AmountParser.parse(buffer, comma + 1, amountEnd);
+        if (!AmountParser.isAmount(amount)) {
+            if (amount == AmountParser.NON_NUMERIC
+                    && AmountParser.hasNonAscii(buffer, comma + 1, amountEnd)) {
+                totals.nonAsciiAmounts++;
+            }
+            return AmountParser.toSkipReason(amount);
+        }
+        int operationLength = comma - lineStart;
+        if (matches(buffer, lineStart, operationLength, SUPPLY_BYTES)) {
+            addSupply((int) amount);
+        } else if (matches(buffer, lineStart, operationLength, BUY_BYTES)) {
+            addBuy((int) amount);
+        } else if (operations != null) {
+            return addOperation(buffer, lineStart, operationLength, (int) amount);
+        } else {
+            return SkipReason.UNKNOWN_OPERATION;
+        }
+        return null;
+    }
+
+    private SkipReason addOperation(ByteBuffer buffer, int from, int length, int amount) {
+        if (length == 0 || matches(buffer, from, length, RESULT_BYTES)) {
+            return SkipReason.UNKNOWN_OPERATION;
+        }
+        operations.add(buffer, from, length, amount);
+        return null;
+    }
+
+    private void addSupply(int amount) {
+        totals.supply += amount;
+        if (listener != null) {
+            listener.onSupply(amount);
+        }
+    }
+
+    private void addBuy(int amount) {
+        totals.buy += amount;
+        if (listener != null) {
+            listener.onBuy(amount);
+        }
+    }
+
+    private static boolean matches(ByteBuffer buffer, int from, int length, byte[] expected) {
+        if (length != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(from + i) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void accept(byte current) {
+        if (current == LINE_FEED || current == CARRIAGE_RETURN) {
+            if (current == LINE_FEED && afterCarriageReturn) {
+                afterCarriageReturn = false;
+                return;
+            }
+            afterCarriageReturn = current == CARRIAGE_RETURN;
+            endLine();
+            return;
+        }
+        afterCarriageReturn = false;
+        lineLength++;
+        if (current == DELIMITER) {
+            if (field < TRAILING_FIELDS) {
+                field++;
+            }
+            return;
+        }
+        if (field == OPERATION_FIELD) {
+            acceptOperationByte(current);
+        } else if (field == AMOUNT_FIELD) {
+            acceptAmountByte(current);
+        } else {
+            trailingContent = true;
+        }
+    }
+
+    private void acceptOperationByte(byte current) {
+        maybeSupply &= operationLength < SUPPLY_BYTES.length
+                && SUPPLY_BYTES[operationLength] == current;
+        maybeBuy &= operationLength < BUY_BYTES.length
+                && BUY_BYTES[operationLength] == current;
+        if (operationBytes != null) {
+            if (operationLength == operationBytes.capacity()) {
+                operationBytes = ByteBuffer.allocate(operationLength * 2)
+                        .put(operationBytes.clear());
+            }
+            operationBytes.put(operationLength, current);
+        }
+        operationLength++;
+    }
+
+    private void acceptAmountByte(byte current) {
+        if (amountLength++ == 0 && (current == PLUS || current == MINUS)) {
+            negative = current == MINUS;
+            return;
+        }
+        int digit = AmountParser.toDigit(current);
+        if (digit < 0) {
+            notNumeric = true;
+            nonAsciiAmount |= current < 0;
+            return;
+        }
+        hasDigits = true;
+        magnitude = AmountParser.appendDigit(magnitude, digit);
+    }
+
+    private void endLine() {
+        SkipReason skipReason = classifyLine();
+        if (skipReason == null) {
+            int amount = (int) AmountParser.toAmount(negative, magnitude);
+            if (maybeSupply && operationLength == SUPPLY_BYTES.length) {
+                addSupply(amount);
+            } else if (maybeBuy && operationLength == BUY_BYTES.length) {
+                addBuy(amount);
+            } else if (operations != null) {
+                skipReason = addOperation(operationBytes, 0, operationLength, amount);
+            } else {
+                skipReason = SkipReason.UNKNOWN_OPERATION;
+            }
+        } else if (skipReason == SkipReason.NON_NUMERIC && nonAsciiAmount) {
+            totals.nonAsciiAmounts++;
+        }
+        totals.countLine(skipReason);
+        resetLine();
+    }
+
+    /**
+     * Returns why the line is malformed, or {@code null} if it has a valid
+     * amount. Mirrors "parts.length == 2" followed by Integer.parseInt.
+     */
+    private SkipReason classifyLine() {
+        if (field == OPERATION_FIELD || amountLength == 0 || trailingContent) {
+            return SkipReason.WRONG_FIELD_COUNT;
+        }
+        if (!hasDigits || notNumeric) {
+            return SkipReason.NON_NUMERIC;
+        }
+        long amount = AmountParser.toAmount(negative, magnitude);
+        return AmountParser.isAmount(amount) ? null : SkipReason.OVERFLOW;
+    }
+
+    private void resetLine() {
+        field = OPERATION_FIELD;
+        lineLength = 0;
+        operationLength = 0;
+        maybeSupply = true;
+        maybeBuy = true;
+        amountLength = 0;
+        negative = false;
+        hasDigits = false;
+        notNumeric = false;
+        nonAsciiAmount = false;
+        magnitude = 0;
+        trailingContent = false;
+    }
+}
@@ -0,0 +1,11 @@
+package core.basesyntax;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Strategy that reads a source file and calculates its {@link Totals}.
+ */
+interface TotalsReader {
+    Totals read(Path source) throws IOException;
+}
@@ -1,25 +1,118 @@
 package core.basesyntax;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
 
-public class WorkWithFile {
+public class WorkWithFile implements AutoCloseable {
     // Constants for operation types and file format
     private static final String SUPPLY_OPERATION = "supply";
     private static final String BUY_OPERATION = "buy";
     private static final String RESULT_OPERATION = "result";
     private static final String CSV_DELIMITER = ",";
+    private static final String CHANNEL_SOURCE = "<channel>";
+    private static final String GZIP_EXTENSION = ".gz";
+    private static final String BINARY_EXTENSION = ".wwfb";
+
+    private final int parallelism;
+    private final ForkJoinPool readPool;
+    private final TotalsCache totalsCache;
+    private final ReportPublisher reportPublisher;
+    private final ThreadLocal<ReportRenderer> reportRenderers =
+            ThreadLocal.withInitial(ReportRenderer::new);
+    private final ByteBufferPool bufferPool;
+    private final IncrementalTotalsReader incrementalReader;
+    private final PipelinedTotalsReader pipelinedReader;
+    private final DecodingTotalsReader decodingReader;
+    private final DecodingTotalsReader operationDecodingReader;
 
     /**
-     * A simple data carrier class to hold the calculated totals.
-     * This is more readable and type-safe than using an array.
+     * Creates an instance that uses all available processors in
+     * {@link ReadMode#PARALLEL} mode.
      */
-    private static class Totals {
-        private int supply;
-        private int buy;
+    public WorkWithFile() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates an instance that uses the given number of threads in
+     * {@link ReadMode#PARALLEL} mode.
+     *
+     * @param parallelism The number of threads used to read one file.
+     */
+    public WorkWithFile(int parallelism) {
+        this(parallelism, null);
+    }
+
+    /**
+     * Creates an instance that looks up the totals of unchanged source files
+     * in the given cache before reading them.
+     *
+     * @param parallelism The number of threads used to read one file.
+     * @param totalsCache The cache to use, or {@code null} to always read.
+     */
+    public WorkWithFile(int parallelism, TotalsCache totalsCache) {
+        this(parallelism, totalsCache, Durability.NONE);
+    }
+
+    /**
+     * Creates an instance that publishes its reports with the given
+     * durability.
+     *
+     * @param parallelism The number of threads used to read one file.
+     * @param totalsCache The cache to use, or {@code null} to always read.
+     * @param durability  How durable a written report is.
+     */
+    public WorkWithFile(int parallelism, TotalsCache totalsCache, Durability durability) {
+        this(parallelism, totalsCache, durability, ByteBufferPool.getDefault());
+    }
+
+    /**
+     * Creates an instance that borrows its read buffers from the given pool.
+     *
+     * @param parallelism The number of threads used to read one file.
+     * @param totalsCache The cache to use, or {@code null} to always read.
+     * @param durability  How durable a written report is.
+     * @param bufferPool  The pool of read buffers, shared with other
+     *                    instances as needed. Only
+     *                    {@link ReadMode#PIPELINED} uses a pool of its own,
+     *                    with larger buffers sized for its parser threads.
+     */
+    public WorkWithFile(int parallelism, TotalsCache totalsCache, Durability durability,
+            ByteBufferPool bufferPool) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive, but was "
+                    + parallelism);
+        }
+        this.parallelism = parallelism;
+        this.readPool = new ForkJoinPool(parallelism);
+        this.totalsCache = totalsCache;
+        this.reportPublisher = new ReportPublisher(durability);
+        this.bufferPool = bufferPool;
+        this.pipelinedReader = new PipelinedTotalsReader(pipelinedThreads(),
+                PipelinedTotalsReader.createBufferPool(pipelinedThreads()));
+        this.incrementalReader = new IncrementalTotalsReader(bufferPool);
+        this.decodingReader = new DecodingTotalsReader(Charset.defaultCharset(), false,
+                bufferPool);
+        this.operationDecodingReader = new DecodingTotalsReader(Charset.defaultCharset(), true,
+                bufferPool);
     }
 
     /**
@@ -31,52 +124,453 @@ public class WorkWithFile {
      * @return The generated report as a String.
      */
     public String getStatistic(String fromFileName, String toFileName) {
-        Totals totals = readAndCalculateTotals(fromFileName);
+        return getStatistic(fromFileName, toFileName, ReadMode.BUFFERED);
+    }
+
+    /**
+     * Same as {@link #getStatistic(String, String)}, but reads the source file
+     * the way the given {@link ReadMode} describes. The report does not depend
+     * on the mode.
+     *
+     * @param fromFileName The path to the input CSV file.
+     * @param toFileName   The path to the output report file.
+     * @param readMode     The way the input file is read.
+     * @return The generated report as a String.
+     */
+    public String getStatistic(String fromFileName, String toFileName, ReadMode readMode) {
+        StatisticEvent event = new StatisticEvent();
+        event.begin();
+        Totals totals = readAndCalculateTotals(fromFileName, readMode);
+        return publishReport(totals, fromFileName, event,
+                report -> writeToFile(toFileName, report));
+    }
+
+    /**
+     * Same as {@link #getStatistic(String, String, ReadMode)}, but only
+     * returns the report and writes no file.
+     *
+     * @param fromFileName The path to the input CSV file.
+     * @param readMode     The way the input file is read.
+     * @return The generated report as a String.
+     */
+    String createStatistic(String fromFileName, ReadMode readMode) {
+        StatisticEvent event = new StatisticEvent();
+        event.begin();
+        Totals totals = readAndCalculateTotals(fromFileName, readMode);
+        return publishReport(totals, fromFileName, event, report -> {
+        });
+    }
+
+    /**
+     * Same as {@link #getStatistic(String, String)}, but returns at once.
+     * Reading, parsing and writing run as stages on the given executor: the
+     * source is read through an asynchronous channel and every chunk is
+     * parsed, or decoded, as a separate task, and the report is written
+     * through an asynchronous channel too, so neither the caller nor an
+     * executor thread waits for the data of a file.
+     *
+     * <p>Some file system calls have no asynchronous counterpart and run on
+     * an executor thread: the attributes a {@link TotalsCache} compares, the
+     * creation of the temporary report, and its rename and the syncs the
+     * {@link Durability} asks for. Gzip and binary sources are read and
+     * parsed in one blocking stage on the executor.
+     *
+     * <p>Cancelling the returned future stops reading and parsing after the
+     * chunk in flight, and no report is written unless writing has already
+     * started.
+     *
+     * @param fromFileName The path to the input CSV file.
+     * @param toFileName   The path to the output report file.
+     * @param executor     The executor that runs every stage.
+     * @return The future report, failing with the exception
+     *         {@code getStatistic} would throw.
+     */
+    public CompletableFuture<String> getStatisticAsync(String fromFileName, String toFileName,
+            Executor executor) {
+        StatisticEvent event = new StatisticEvent();
+        event.begin();
+        CompletableFuture<Totals> totals = readTotalsAsync(fromFileName, executor);
+        CompletableFuture<String> report = AsyncTotalsReader.thenComposeCancellable(
+                totals.handle((result, error) -> {
+                    if (error != null) {
+                        throw asRuntimeException(error, "Can't read data from file: "
+                                + fromFileName);
+                    }
+                    return result;
+                }), result -> publishReportAsync(result, fromFileName, toFileName, event,
+                        executor));
+        report.whenComplete((result, error) -> {
+            if (report.isCancelled()) {
+                totals.cancel(false);
+            }
+        });
+        return report;
+    }
+
+    private CompletableFuture<Totals> readTotalsAsync(String fromFileName, Executor executor) {
+        if (fromFileName.endsWith(GZIP_EXTENSION) || fromFileName.endsWith(BINARY_EXTENSION)) {
+            return CompletableFuture.supplyAsync(
+                    () -> readAndCalculateTotals(fromFileName, ReadMode.BUFFERED), executor);
+        }
+        Path source = Path.of(fromFileName);
+        if (totalsCache != null) {
+            return totalsCache.getAsync(source, path -> readTextAsync(path, executor), executor);
+        }
+        return readTextAsync(source, executor);
+    }
+
+    /**
+     * Reads a CSV source through an asynchronous channel like
+     * {@link AsciiTotalsReader} reads it, decoding it in a second pass if the
+     * byte-level one can't give the decoded result.
+     */
+    private CompletableFuture<Totals> readTextAsync(Path source, Executor executor) {
+        AsyncTotalsReader reader = new AsyncTotalsReader(bufferPool);
+        if (!decodingReader.isAsciiTransparent()) {
+            return reader.read(source, executor, decodingReader::newDecoding);
+        }
+        return AsyncTotalsReader.thenComposeCancellable(reader.read(source, executor),
+                totals -> totals.nonAsciiAmounts == 0
+                        ? CompletableFuture.completedFuture(totals)
+                        : reader.read(source, executor, decodingReader::newDecoding));
+    }
+
+    /**
+     * Same as {@link #publishReport} for {@link ReportPublisher#publishAsync},
+     * recording the call once the report is written.
+     */
+    private CompletableFuture<String> publishReportAsync(Totals totals, String source,
+            String toFileName, StatisticEvent event, Executor executor) {
+        long reportStart = System.nanoTime();
+        String report = createReport(totals);
+        long writeStart = System.nanoTime();
+        return reportPublisher.publishAsync(Path.of(toFileName),
+                Charset.defaultCharset().encode(report), executor)
+                .handle((ignored, error) -> {
+                    if (error != null) {
+                        throw asRuntimeException(error, "Can't write data to file: "
+                                + toFileName);
+                    }
+                    recordCall(totals, source, event, writeStart - reportStart,
+                            System.nanoTime() - writeStart);
+                    return report;
+                });
+    }
+
+    /**
+     * Unwraps the failure of a stage and returns it as the exception the
+     * blocking methods throw: runtime exceptions as they are and anything
+     * else wrapped with the given message.
+     */
+    private static RuntimeException asRuntimeException(Throwable error, String message) {
+        Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+        if (cause instanceof UncheckedIOException) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        return new RuntimeException(message, cause);
+    }
+
+    /**
+     * Same as {@link #getStatistic(String, String, ReadMode)}, but does not
+     * return the report. The report is formatted straight into a reused byte
+     * buffer and written through a channel, so writing many small reports
+     * creates no Strings and no encoder per report. The file content is the
+     * same as that of {@code getStatistic}.
+     *
+     * @param fromFileName The path to the input CSV file.
+     * @param toFileName   The path to the output report file.
+     * @param readMode     The way the input file is read.
+     */
+    public void writeStatistic(String fromFileName, String toFileName, ReadMode readMode) {
+        if (!ReportRenderer.isSupported()) {
+            getStatistic(fromFileName, toFileName, readMode);
+            return;
+        }
+        StatisticEvent event = new StatisticEvent();
+        event.begin();
+        Totals totals = readAndCalculateTotals(fromFileName, readMode);
+        long reportStart = System.nanoTime();
+        ByteBuffer report = reportRenderers.get().render(totals);
+        long writeStart = System.nanoTime();
+        try {
+            reportPublisher.publish(Path.of(toFileName), report);
+        } catch (IOException e) {
+            throw new RuntimeException("Can't write data to file: " + toFileName, e);
+        }
+        recordCall(totals, fromFileName, event, writeStart - reportStart,
+                System.nanoTime() - writeStart);
+    }
+
+    /**
+     * Same as {@link #getStatistic(String, String)}, but aggregates the data
+     * straight from a stream and writes the report to another stream, so
+     * piped or decompressed input needs no temporary file. Neither stream is
+     * closed; the output stream is flushed.
+     *
+     * @param from The stream with the CSV data, read up to its end.
+     * @param to   The stream the report is written to.
+     * @return The generated report as a String.
+     */
+    public String getStatistic(InputStream from, OutputStream to) {
+        String report = getStatistic(Channels.newChannel(from), Channels.newChannel(to));
+        try {
+            to.flush();
+        } catch (IOException e) {
+            throw new RuntimeException("Can't write data to stream", e);
+        }
+        return report;
+    }
+
+    /**
+     * Same as {@link #getStatistic(InputStream, OutputStream)} for channels.
+     * Neither channel is closed. A channel cannot be read twice, so unlike a
+     * file it is not decoded again when an amount holds non-ASCII bytes; such
+     * lines are skipped as non-numeric.
+     *
+     * @param from The channel with the CSV data, read up to its end.
+     * @param to   The channel the report is written to.
+     * @return The generated report as a String.
+     */
+    public String getStatistic(ReadableByteChannel from, WritableByteChannel to) {
+        StatisticEvent event = new StatisticEvent();
+        event.begin();
+        Totals totals;
+        try {
+            if (decodingReader.isAsciiTransparent()) {
+                totals = new BufferedTotalsReader(bufferPool).read(from);
+            } else {
+                totals = decodingReader.read(from);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Can't read data from channel", e);
+        }
+        return publishReport(totals, CHANNEL_SOURCE, event, report -> writeToChannel(to, report));
+    }
+
+    /**
+     * Same as {@link #getStatistic(String, String)}, but sums every operation
+     * of the source instead of only "supply" and "buy". The report has the
+     * "supply" and "buy" rows first, then a row per other operation in
+     * alphabetical order, and the "result" row last. "result" is reserved
+     * for that last row, so source lines of an operation named "result" are
+     * counted as skipped lines of an unknown operation, like lines of any
+     * operation {@link #getStatistic(String, String)} does not sum. Gzip
+     * sources are decompressed like there; binary sources only keep supply
+     * and buy and are rejected.
+     *
+     * @param fromFileName The path to the input CSV file.
+     * @param toFileName   The path to the output report file.
+     * @return The generated report as a String.
+     * @throws IllegalArgumentException If the source is a binary file.
+     */
+    public String getStatisticByOperation(String fromFileName, String toFileName) {
+        StatisticEvent event = new StatisticEvent();
+        event.begin();
+        Totals totals = readAndCalculateOperationTotals(fromFileName);
+        return publishReport(totals, fromFileName, event,
+                report -> writeToFile(toFileName, report));
+    }
+
+    /**
+     * Completes the reports published since the last call and makes them
+     * durable. Only needed with {@link Durability#GROUP_COMMIT}, where a
+     * report replaces its target only here; {@link StatisticBatch} calls it
+     * after every batch.
+     */
+    public void syncReports() {
+        try {
+            reportPublisher.sync();
+        } catch (IOException e) {
+            throw new RuntimeException("Can't sync reports", e);
+        }
+    }
+
+    /**
+     * Shuts down the threads that read {@link ReadMode#PARALLEL} and gzip
+     * sources in parallel, and those that parse {@link ReadMode#PIPELINED}
+     * reads. They start on the first such read and are shared by every later
+     * one; reads in progress still complete.
+     */
+    @Override
+    public void close() {
+        readPool.shutdown();
+        pipelinedReader.close();
+    }
+
+    /**
+     * Converts a CSV source file into the compact binary transaction format,
+     * which {@link #getStatistic(String, String)} aggregates much faster than
+     * the CSV when the file name ends with ".wwfb". Only the "supply" and
+     * "buy" records are kept, so the report stays the same.
+     *
+     * @param fromFileName The path to the input CSV file.
+     * @param toFileName   The path to the binary file, usually ending with ".wwfb".
+     * @return The number of records written.
+     */
+    public long convertToBinary(String fromFileName, String toFileName) {
+        try {
+            return new BinaryTransactionConverter(bufferPool, decodingReader)
+                    .convert(Path.of(fromFileName), Path.of(toFileName));
+        } catch (IOException e) {
+            throw new RuntimeException("Can't convert data from file: " + fromFileName, e);
+        }
+    }
+
+    /**
+     * Creates the report, hands it to the writer and records the metrics and
+     * the Flight Recorder event of the call.
+     */
+    String publishReport(Totals totals, String source, StatisticEvent event,
+            Consumer<String> writer) {
+        long reportStart = System.nanoTime();
         String report = createReport(totals);
-        writeToFile(toFileName, report);
+        long writeStart = System.nanoTime();
+        writer.accept(report);
+        recordCall(totals, source, event, writeStart - reportStart,
+                System.nanoTime() - writeStart);
         return report;
     }
 
+    private void recordCall(Totals totals, String source, StatisticEvent event,
+            long createReportNanos, long writeToFileNanos) {
+        StatisticMetrics.getInstance().record(totals, createReportNanos, writeToFileNanos);
+        event.commit(source, totals, createReportNanos, writeToFileNanos);
+    }
+
     /**
      * Reads the source file, validates data, parses it, and calculates the total
      * for "supply" and "buy" operations. Malformed lines are ignored.
+     * The file is scanned as raw bytes by {@link TotalsParser}, so no objects
+     * are created per line and nothing is decoded, unless the default charset
+     * or a non-ASCII amount needs the {@link DecodingTotalsReader}. A file
+     * whose name ends with ".gz" is decompressed on the fly and one ending
+     * with ".wwfb" is read as binary transactions, whatever the read mode.
      *
      * @param fromFileName The path to the source data file.
+     * @param readMode     The way the source file is read.
      * @return A Totals object containing the sum for supply and buy.
      */
-    private Totals readAndCalculateTotals(String fromFileName) {
-        Totals totals = new Totals();
-        try (BufferedReader reader = new BufferedReader(new FileReader(fromFileName))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(CSV_DELIMITER);
-
-                // Skip lines that are not in "key,value" format
-                if (parts.length != 2) {
-                    continue;
-                }
-
-                String operationType = parts[0];
-                int amount;
-                try {
-                    amount = Integer.parseInt(parts[1]);
-                } catch (NumberFormatException e) {
-                    // Skip lines where the amount is not a valid number
-                    continue;
-                }
-
-                if (SUPPLY_OPERATION.equals(operationType)) {
-                    totals.supply += amount;
-                } else if (BUY_OPERATION.equals(operationType)) {
-                    totals.buy += amount;
-                }
+    Totals readAndCalculateTotals(String fromFileName, ReadMode readMode) {
+        return readTotals(fromFileName, createReader(fromFileName, readMode));
+    }
+
+    /**
+     * Same as {@link #readAndCalculateTotals(String, ReadMode)} for a source
+     * that {@link #isByteLevelSource} accepts, but reads it with the given
+     * byte-level reader, through the {@link TotalsCache} if there is one. The
+     * reader has to fall back to {@link #readDecoded} on its own.
+     *
+     * @param fromFileName The path to the source data file.
+     * @param byteReader   The reader of the raw bytes.
+     * @return A Totals object containing the sum for supply and buy.
+     */
+    Totals readAndCalculateTotals(String fromFileName, TotalsReader byteReader) {
+        return readTotals(fromFileName, byteReader);
+    }
+
+    /**
+     * Returns whether the source is read as raw bytes, that is it is neither
+     * a gzip nor a binary file and the default charset is ASCII-transparent.
+     */
+    boolean isByteLevelSource(String fromFileName) {
+        return !fromFileName.endsWith(GZIP_EXTENSION) && !fromFileName.endsWith(BINARY_EXTENSION)
+                && decodingReader.isAsciiTransparent();
+    }
+
+    ByteBufferPool getBufferPool() {
+        return bufferPool;
+    }
+
+    private Totals readTotals(String fromFileName, TotalsReader reader) {
+        try {
+            if (totalsCache != null) {
+                return totalsCache.get(Path.of(fromFileName), reader);
             }
+            return reader.read(Path.of(fromFileName));
+        } catch (IOException e) {
+            throw new RuntimeException("Can't read data from file: " + fromFileName, e);
+        }
+    }
+
+    /**
+     * Reads the source file sequentially and sums the amounts of every
+     * operation into {@link Totals#operations}. A gzip source is
+     * decompressed first.
+     *
+     * @param fromFileName The path to the source data file.
+     * @return A Totals object containing the sum for every operation.
+     * @throws IllegalArgumentException If the source is a binary file, which
+     *                                  only keeps supply and buy.
+     */
+    Totals readAndCalculateOperationTotals(String fromFileName) {
+        if (fromFileName.endsWith(BINARY_EXTENSION)) {
+            throw new IllegalArgumentException("Binary files only keep supply and buy, "
+                    + "so they can't be summed by operation: " + fromFileName);
+        }
+        TotalsReader reader = new AsciiTotalsReader(this::readOperationTotals,
+                operationDecodingReader);
+        try {
+            return reader.read(Path.of(fromFileName));
         } catch (IOException e) {
             throw new RuntimeException("Can't read data from file: " + fromFileName, e);
         }
+    }
+
+    private Totals readOperationTotals(Path source) throws IOException {
+        Totals totals = new Totals();
+        totals.operations = new OperationTotals();
+        try (ReadableByteChannel channel = source.toString().endsWith(GZIP_EXTENSION)
+                ? Channels.newChannel(new GZIPInputStream(Files.newInputStream(source)))
+                : FileChannel.open(source, StandardOpenOption.READ)) {
+            BufferedTotalsReader.parseChannel(channel,
+                    new TotalsParser(totals, totals.operations), bufferPool);
+        }
         return totals;
     }
 
+    Totals readDecoded(String fromFileName) {
+        try {
+            return decodingReader.read(Path.of(fromFileName));
+        } catch (IOException e) {
+            throw new RuntimeException("Can't read data from file: " + fromFileName, e);
+        }
+    }
+
+    private int pipelinedThreads() {
+        return Math.max(1, parallelism - 1);
+    }
+
+    private TotalsReader createReader(String fromFileName, ReadMode readMode) {
+        if (fromFileName.endsWith(BINARY_EXTENSION)) {
+            return new BinaryTotalsReader(bufferPool);
+        }
+        return new AsciiTotalsReader(createTextReader(fromFileName, readMode), decodingReader);
+    }
+
+    private TotalsReader createTextReader(String fromFileName, ReadMode readMode) {
+        if (fromFileName.endsWith(GZIP_EXTENSION)) {
+            return new GzipTotalsReader(parallelism, readPool, bufferPool);
+        }
+        switch (readMode) {
+            case MEMORY_MAPPED:
+                return new MappedTotalsReader();
+            case PARALLEL:
+                return new ParallelTotalsReader(parallelism, readPool, bufferPool);
+            case INCREMENTAL:
+                return incrementalReader;
+            case INDEXED:
+                return new IndexedTotalsReader(bufferPool);
+            case PIPELINED:
+                return pipelinedReader;
+            case BUFFERED:
+            default:
+                return new BufferedTotalsReader(bufferPool);
+        }
+    }
+
     /**
      * Creates a formatted report string from the calculated totals without a
      * trailing newline.
@@ -84,7 +578,10 @@ public class WorkWithFile {
      * @param totals The Totals object with supply and buy amounts.
      * @return A formatted multi-line string representing the report.
      */
-    private String createReport(Totals totals) {
+    String createReport(Totals totals) {
+        if (totals.operations != null) {
+            return createOperationReport(totals);
+        }
         int result = totals.supply - totals.buy;
         StringBuilder reportBuilder = new StringBuilder();
 
@@ -98,16 +595,58 @@ public class WorkWithFile {
     }
 
     /**
-     * Writes the given content to the specified file.
+     * Creates a report with a row per operation, using the same format and
+     * the same "supply", "buy" and "result" rows as {@link #createReport}.
+     */
+    private String createOperationReport(Totals totals) {
+        Map<String, Integer> sums = totals.operations.toSortedMap(Charset.defaultCharset());
+        StringBuilder reportBuilder = new StringBuilder();
+
+        reportBuilder.append(SUPPLY_OPERATION).append(CSV_DELIMITER).append(totals.supply)
+                .append(System.lineSeparator());
+        reportBuilder.append(BUY_OPERATION).append(CSV_DELIMITER).append(totals.buy)
+                .append(System.lineSeparator());
+        for (Map.Entry<String, Integer> sum : sums.entrySet()) {
+            reportBuilder.append(sum.getKey()).append(CSV_DELIMITER).append(sum.getValue())
+                    .append(System.lineSeparator());
+        }
+        reportBuilder.append(RESULT_OPERATION).append(CSV_DELIMITER)
+                .append(totals.supply - totals.buy);
+
+        return reportBuilder.toString();
+    }
+
+    /**
+     * Writes the given content to the specified file. The file is replaced
+     * atomically, so readers never see a partial report.
      *
      * @param toFileName    The path of the file to write to.
      * @param reportContent The string content to be written.
      */
-    private void writeToFile(String toFileName, String reportContent) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(toFileName))) {
-            writer.write(reportContent);
+    void writeToFile(String toFileName, String reportContent) {
+        try {
+            reportPublisher.publish(Path.of(toFileName),
+                    Charset.defaultCharset().encode(reportContent));
         } catch (IOException e) {
             throw new RuntimeException("Can't write data to file: " + toFileName, e);
         }
     }
+
+    /**
+     * Writes the given content to the channel in the same encoding
+     * {@link #writeToFile} uses.
+     *
+     * @param channel       The channel to write to.
+     * @param reportContent The string content to be written.
+     */
+    private void writeToChannel(WritableByteChannel channel, String reportContent) {
+        ByteBuffer bytes = Charset.defaultCharset().encode(reportContent);
+        try {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Can't write data to channel", e);
+        }
+    }
 }
@@ -0,0 +1,35 @@
+package core.basesyntax;
+
+import org.junit.Assert;
+import org.junit.Test;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public class AmountParserTest {
+
+    @Test
+    public void parseAcceptsWhatIntegerParseIntAccepts() {
+        Assert.assertEquals(42, parse("42"));
+        Assert.assertEquals(42, parse("+42"));
+        Assert.assertEquals(-42, parse("-0042"));
+        Assert.assertEquals(Integer.MAX_VALUE, parse("2147483647"));
+        Assert.assertEquals(Integer.MIN_VALUE, parse("-2147483648"));
+    }
+
+    @Test
+    public void parseReportsErrorsThroughReturnValue() {
+        Assert.assertEquals(AmountParser.NON_NUMERIC, parse(""));
+        Assert.assertEquals(AmountParser.NON_NUMERIC, parse("-"));
+        Assert.assertEquals(AmountParser.NON_NUMERIC, parse("1 2"));
+        Assert.assertEquals(AmountParser.NON_NUMERIC, parse("99999999999x"));
+        Assert.assertEquals(AmountParser.OVERFLOW, parse("2147483648"));
+        Assert.assertEquals(AmountParser.OVERFLOW, parse("-99999999999999999999999"));
+        Assert.assertFalse(AmountParser.isAmount(AmountParser.OVERFLOW));
+        Assert.assertFalse(AmountParser.isAmount(AmountParser.NON_NUMERIC));
+    }
+
+    private long parse(String amount) {
+        byte[] data = amount.getBytes(StandardCharsets.US_ASCII);
+        return AmountParser.parse(ByteBuffer.wrap(data), 0, data.length);
+    }
+}
@@ -0,0 +1,117 @@
+package core.basesyntax;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class AsyncTotalsReaderTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @After
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void readMatchesBufferedReader() throws Exception {
+        Path source = folder.getRoot().toPath().resolve("large.csv");
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 50_000; i++) {
+            content.append(i % 3 == 0 ? "buy," : "supply,").append(i).append('\n');
+        }
+        Files.writeString(source, content);
+
+        Totals actual = new AsyncTotalsReader().read(source, executor).get();
+
+        Totals expected = new BufferedTotalsReader().read(source);
+        Assert.assertEquals(expected.supply, actual.supply);
+        Assert.assertEquals(expected.buy, actual.buy);
+        Assert.assertEquals(expected.lines, actual.lines);
+    }
+
+    @Test
+    public void getStatisticAsyncWritesSameReport() throws Exception {
+        Path toFile = folder.getRoot().toPath().resolve("report.csv");
+
+        String report = new WorkWithFile().getStatisticAsync("apple.csv", toFile.toString(),
+                executor).get();
+
+        Assert.assertTrue(report.endsWith("result,73"));
+        Assert.assertEquals(report, Files.readString(toFile));
+    }
+
+    @Test
+    public void getStatisticAsyncDecodesNonAsciiAmountsLikeGetStatistic() throws Exception {
+        Path source = folder.getRoot().toPath().resolve("digits.csv");
+        Files.writeString(source, "supply,\u0663\u0663\nbuy,1\n", StandardCharsets.UTF_8);
+        WorkWithFile workWithFile = new WorkWithFile();
+
+        String report = workWithFile.getStatisticAsync(source.toString(),
+                folder.getRoot().toPath().resolve("async.csv").toString(), executor).get();
+
+        Assert.assertEquals(workWithFile.getStatistic(source.toString(),
+                folder.getRoot().toPath().resolve("sync.csv").toString()), report);
+    }
+
+    @Test
+    public void getStatisticAsyncReusesCachedTotals() throws Exception {
+        TotalsCache cache = new TotalsCache(2);
+        WorkWithFile workWithFile = new WorkWithFile(1, cache);
+        Path toFile = folder.getRoot().toPath().resolve("report.csv");
+
+        String first = workWithFile.getStatisticAsync("apple.csv", toFile.toString(),
+                executor).get();
+        String second = workWithFile.getStatisticAsync("apple.csv", toFile.toString(),
+                executor).get();
+
+        Assert.assertEquals(first, second);
+        Assert.assertEquals(1, cache.getMissCount());
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(second, Files.readString(toFile));
+    }
+
+    @Test
+    public void getStatisticAsyncFailsForMissingFile() throws InterruptedException {
+        CompletableFuture<String> report = new WorkWithFile().getStatisticAsync("missing.csv",
+                folder.getRoot().toPath().resolve("report.csv").toString(), executor);
+        try {
+            report.get();
+            Assert.fail("A missing source must fail the future");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause().getMessage().contains("missing.csv"));
+        }
+    }
+
+    @Test
+    public void cancelledStatisticWritesNoReport() throws InterruptedException, IOException {
+        BlockingQueue<Runnable> tasks = new LinkedBlockingQueue<>();
+        Path toFile = folder.getRoot().toPath().resolve("report.csv");
+
+        CompletableFuture<String> report = new WorkWithFile().getStatisticAsync("banana.csv",
+                toFile.toString(), tasks::add);
+        report.cancel(true);
+        Runnable task;
+        while ((task = tasks.poll(100, TimeUnit.MILLISECONDS)) != null) {
+            task.run();
+        }
+
+        Assert.assertTrue(report.isCancelled());
+        Assert.assertFalse(Files.exists(toFile));
+    }
+}
@@ -0,0 +1,104 @@
+package core.basesyntax;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class BinaryTotalsReaderTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void convertedFilesHaveTheSameTotals() throws IOException {
+        for (String fileName : new String[] {"apple.csv", "banana.csv", "grape.csv",
+                "orange.csv"}) {
+            Path binary = folder.getRoot().toPath().resolve(fileName + ".wwfb");
+            new BinaryTransactionConverter().convert(Path.of(fileName), binary);
+
+            Totals expected = new BufferedTotalsReader().read(Path.of(fileName));
+            Totals actual = new BinaryTotalsReader().read(binary);
+            Assert.assertEquals(expected.supply, actual.supply);
+            Assert.assertEquals(expected.buy, actual.buy);
+            Assert.assertTrue(Files.size(binary) < Files.size(Path.of(fileName)));
+        }
+    }
+
+    @Test
+    public void convertKeepsExtremeAmountsAndDropsSkippedLines() throws IOException {
+        Path csv = folder.getRoot().toPath().resolve("extreme.csv");
+        Files.writeString(csv, "supply,2147483647\nsupply,-2147483648\nbuy,-1\n"
+                + "return,5\nbuy,abc\nbuy,0\nsupply,63\nsupply,-64\nbuy,64");
+        Path binary = folder.getRoot().toPath().resolve("extreme.wwfb");
+
+        long records = new BinaryTransactionConverter().convert(csv, binary);
+        Totals totals = new BinaryTotalsReader().read(binary);
+
+        Assert.assertEquals(7, records);
+        Assert.assertEquals(7, totals.lines);
+        Assert.assertEquals(Integer.MAX_VALUE + Integer.MIN_VALUE + 63 - 64, totals.supply);
+        Assert.assertEquals(-1 + 64, totals.buy);
+    }
+
+    @Test
+    public void getStatisticAggregatesBinaryFile() {
+        String binary = folder.getRoot().toPath().resolve("banana.wwfb").toString();
+        String toFileName = folder.getRoot().toPath().resolve("report.csv").toString();
+        WorkWithFile workWithFile = new WorkWithFile();
+        workWithFile.convertToBinary("banana.csv", binary);
+
+        Assert.assertEquals(workWithFile.getStatistic("banana.csv", toFileName),
+                workWithFile.getStatistic(binary, toFileName));
+    }
+
+    @Test
+    public void convertDecodesNonAsciiDigitsLikeCsvReports() throws IOException {
+        Path csv = folder.getRoot().toPath().resolve("digits.csv");
+        Files.writeString(csv, "supply,\u0661\u0662\nbuy,3\nsupply,5\n", StandardCharsets.UTF_8);
+        Path binary = folder.getRoot().toPath().resolve("digits.wwfb");
+        DecodingTotalsReader decodingReader = new DecodingTotalsReader(StandardCharsets.UTF_8);
+
+        long records = new BinaryTransactionConverter(ByteBufferPool.getDefault(),
+                decodingReader).convert(csv, binary);
+        Totals totals = new BinaryTotalsReader().read(binary);
+
+        Assert.assertEquals(3, records);
+        Assert.assertEquals(17, totals.supply);
+        Assert.assertEquals(3, totals.buy);
+    }
+
+    @Test
+    public void convertDecodesCharsetsThatAreNotAsciiTransparent() throws IOException {
+        Path csv = folder.getRoot().toPath().resolve("wide.csv");
+        Files.writeString(csv, "supply,10\nbuy,4\n", StandardCharsets.UTF_16LE);
+        Path binary = folder.getRoot().toPath().resolve("wide.wwfb");
+
+        long records = new BinaryTransactionConverter(ByteBufferPool.getDefault(),
+                new DecodingTotalsReader(StandardCharsets.UTF_16LE)).convert(csv, binary);
+        Totals totals = new BinaryTotalsReader().read(binary);
+
+        Assert.assertEquals(2, records);
+        Assert.assertEquals(10, totals.supply);
+        Assert.assertEquals(4, totals.buy);
+    }
+
+    @Test(expected = IOException.class)
+    public void readRejectsDamagedRecords() throws IOException {
+        Path binary = folder.getRoot().toPath().resolve("apple.wwfb");
+        new BinaryTransactionConverter().convert(Path.of("apple.csv"), binary);
+        byte[] bytes = Files.readAllBytes(binary);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(binary, bytes);
+
+        new BinaryTotalsReader().read(binary);
+    }
+
+    @Test(expected = IOException.class)
+    public void readRejectsOtherFiles() throws IOException {
+        new BinaryTotalsReader().read(Path.of("apple.csv"));
+    }
+}
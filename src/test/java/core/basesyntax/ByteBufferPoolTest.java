@@ -0,0 +1,108 @@
+package core.basesyntax;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class ByteBufferPoolTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void releasedBufferIsReused() {
+        ByteBufferPool pool = new ByteBufferPool(2, ByteBufferPool.MIN_BUFFER_CAPACITY);
+        ByteBuffer first = pool.acquire();
+        first.put((byte) 1);
+        pool.release(first);
+
+        ByteBuffer second = pool.acquire();
+
+        Assert.assertSame(first, second);
+        Assert.assertTrue(second.isDirect());
+        Assert.assertEquals(0, second.position());
+        Assert.assertEquals(2, pool.getAcquisitions());
+        Assert.assertEquals(0, pool.getExhaustions());
+    }
+
+    @Test
+    public void exhaustedPoolHandsOutTemporaryBuffers() {
+        ByteBufferPool pool = new ByteBufferPool(1, ByteBufferPool.MIN_BUFFER_CAPACITY);
+        long metricsBefore = StatisticMetrics.getInstance().getBufferPoolExhaustions();
+        ByteBuffer pooled = pool.acquire();
+
+        ByteBuffer temporary = pool.acquire();
+
+        Assert.assertFalse(temporary.isDirect());
+        Assert.assertEquals(ByteBufferPool.MIN_BUFFER_CAPACITY, temporary.capacity());
+        Assert.assertEquals(1, pool.getExhaustions());
+        Assert.assertTrue(StatisticMetrics.getInstance().getBufferPoolExhaustions()
+                > metricsBefore);
+
+        pool.release(temporary);
+        pool.release(pooled);
+        Assert.assertEquals(1, pool.getIdleBuffers());
+        Assert.assertSame(pooled, pool.acquire());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tooSmallCapacityIsRejected() {
+        new ByteBufferPool(1, ByteBufferPool.MIN_BUFFER_CAPACITY - 1);
+    }
+
+    @Test
+    public void getStatisticReusesPoolAcrossCallsAndModes() throws IOException {
+        ByteBufferPool pool = new ByteBufferPool(8, ByteBufferPool.DEFAULT_BUFFER_CAPACITY);
+        WorkWithFile workWithFile = new WorkWithFile(2, null, Durability.NONE, pool);
+        String fromFileName = Files.copy(Path.of("grape.csv"),
+                folder.getRoot().toPath().resolve("grape.csv")).toString();
+        String toFileName = folder.getRoot().toPath().resolve("report.csv").toString();
+        String expected = workWithFile.getStatistic(fromFileName, toFileName);
+
+        for (ReadMode readMode : ReadMode.values()) {
+            Assert.assertEquals(expected,
+                    workWithFile.getStatistic(fromFileName, toFileName, readMode));
+        }
+
+        Assert.assertTrue(pool.getAcquisitions() > ReadMode.values().length);
+        Assert.assertEquals(0, pool.getExhaustions());
+        Assert.assertTrue(pool.getIdleBuffers() <= pool.getMaxBuffers());
+    }
+
+    @Test
+    public void pipelinedModeKeepsItsBuffersOutOfTheSharedPool() throws IOException {
+        ByteBufferPool pool = new ByteBufferPool(1, ByteBufferPool.MIN_BUFFER_CAPACITY);
+        WorkWithFile workWithFile = new WorkWithFile(32, null, Durability.NONE, pool);
+        String toFileName = folder.getRoot().toPath().resolve("report.csv").toString();
+
+        String report = workWithFile.getStatistic("grape.csv", toFileName, ReadMode.PIPELINED);
+
+        Assert.assertEquals(workWithFile.getStatistic("grape.csv", toFileName), report);
+        Assert.assertEquals(0, pool.getExhaustions());
+    }
+
+    @Test
+    public void decodingReaderBorrowsItsBuffers() throws IOException {
+        ByteBufferPool pool = new ByteBufferPool(2, ByteBufferPool.MIN_BUFFER_CAPACITY);
+        Path source = folder.getRoot().toPath().resolve("source.csv");
+        String longLine = "supply," + "0".repeat(200) + "7\r\n";
+        Files.writeString(source, "supply,10\r\nbuy,3\r" + longLine + "buy,x\n\nsupply,1",
+                StandardCharsets.UTF_8);
+
+        Totals totals = new DecodingTotalsReader(StandardCharsets.UTF_8, false, pool)
+                .read(source);
+
+        Assert.assertEquals(18, totals.supply);
+        Assert.assertEquals(3, totals.buy);
+        Assert.assertEquals(6, totals.lines);
+        Assert.assertEquals(2, totals.getMalformedLines());
+        Assert.assertEquals(2, pool.getAcquisitions());
+        Assert.assertEquals(0, pool.getExhaustions());
+        Assert.assertEquals(2, pool.getIdleBuffers());
+    }
+}
@@ -0,0 +1,116 @@
+package core.basesyntax;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class DecodingTotalsReaderTest {
+    private static final String NON_ASCII_DIGITS = "supply,\u0661\u0662\nbuy,3\r\n"
+            + "supply,5\nbuy,x\u00e9\n\u00e9,7";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void asciiTransparentCharsets() {
+        Assert.assertTrue(DecodingTotalsReader.isAsciiTransparent(StandardCharsets.UTF_8));
+        Assert.assertTrue(DecodingTotalsReader.isAsciiTransparent(StandardCharsets.US_ASCII));
+        Assert.assertTrue(DecodingTotalsReader.isAsciiTransparent(StandardCharsets.ISO_8859_1));
+        Assert.assertFalse(DecodingTotalsReader.isAsciiTransparent(StandardCharsets.UTF_16LE));
+        Assert.assertFalse(DecodingTotalsReader.isAsciiTransparent(Charset.forName("Shift_JIS")));
+    }
+
+    @Test
+    public void decodingMatchesByteReaderForAsciiSources() throws IOException {
+        DecodingTotalsReader reader = new DecodingTotalsReader(StandardCharsets.UTF_8);
+        for (String fileName : new String[] {"apple.csv", "banana.csv", "grape.csv",
+                "orange.csv"}) {
+            Totals expected = new BufferedTotalsReader().read(Path.of(fileName));
+            Totals actual = reader.read(Path.of(fileName));
+
+            Assert.assertEquals(expected.supply, actual.supply);
+            Assert.assertEquals(expected.buy, actual.buy);
+            Assert.assertEquals(expected.lines, actual.lines);
+            Assert.assertArrayEquals(expected.skippedLines, actual.skippedLines);
+            Assert.assertEquals(0, expected.nonAsciiAmounts);
+        }
+    }
+
+    @Test
+    public void parserCountsNonAsciiAmountsInEverySlicing() {
+        byte[] bytes = NON_ASCII_DIGITS.getBytes(StandardCharsets.UTF_8);
+        for (int sliceSize = 1; sliceSize <= bytes.length; sliceSize++) {
+            Totals totals = new Totals();
+            TotalsParser parser = new TotalsParser(totals);
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            for (int from = 0; from < bytes.length; from += sliceSize) {
+                parser.parse(buffer, from, Math.min(bytes.length, from + sliceSize));
+            }
+            parser.finish();
+
+            Assert.assertEquals(5, totals.supply);
+            Assert.assertEquals(2, totals.nonAsciiAmounts);
+        }
+    }
+
+    @Test
+    public void nonAsciiDigitsFallBackToDecoding() throws IOException {
+        Path source = folder.getRoot().toPath().resolve("source.csv");
+        Files.writeString(source, NON_ASCII_DIGITS, StandardCharsets.UTF_8);
+        TotalsReader reader = new AsciiTotalsReader(new BufferedTotalsReader(),
+                new DecodingTotalsReader(StandardCharsets.UTF_8));
+
+        Totals totals = reader.read(source);
+
+        Assert.assertEquals(17, totals.supply);
+        Assert.assertEquals(3, totals.buy);
+        Assert.assertEquals(5, totals.lines);
+        Assert.assertEquals(1, totals.getSkippedLines(SkipReason.NON_NUMERIC));
+        Assert.assertEquals(1, totals.getSkippedLines(SkipReason.UNKNOWN_OPERATION));
+    }
+
+    @Test
+    public void charsetThatIsNotAsciiTransparentIsAlwaysDecoded() throws IOException {
+        Path source = folder.getRoot().toPath().resolve("source.csv");
+        Files.writeString(source, "supply,10\nbuy,4\n", StandardCharsets.UTF_16LE);
+        TotalsReader reader = new AsciiTotalsReader(new BufferedTotalsReader(),
+                new DecodingTotalsReader(StandardCharsets.UTF_16LE));
+
+        Totals totals = reader.read(source);
+
+        Assert.assertEquals(10, totals.supply);
+        Assert.assertEquals(4, totals.buy);
+    }
+
+    @Test
+    public void decodedRecordsAreHandedToListener() throws IOException {
+        Path source = folder.getRoot().toPath().resolve("source.csv");
+        Files.writeString(source, NON_ASCII_DIGITS, StandardCharsets.UTF_8);
+        List<Integer> supplies = new ArrayList<>();
+        List<Integer> buys = new ArrayList<>();
+
+        new DecodingTotalsReader(StandardCharsets.UTF_8).read(source, new RecordListener() {
+            @Override
+            public void onSupply(int amount) {
+                supplies.add(amount);
+            }
+
+            @Override
+            public void onBuy(int amount) {
+                buys.add(amount);
+            }
+        });
+
+        Assert.assertEquals(List.of(12, 5), supplies);
+        Assert.assertEquals(List.of(3), buys);
+    }
+}
@@ -0,0 +1,33 @@
+package core.basesyntax;
+
+import org.junit.Assert;
+import org.junit.Test;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+public class DelimiterScannerTest {
+    private static final byte[] ALPHABET = {'s', 'b', '1', '-', ',', '\n', '\r'};
+
+    @Test
+    public void preferredScannerFindsSameDelimitersAsScalarScanner() {
+        Random random = new Random(7);
+        byte[] data = new byte[1000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = ALPHABET[random.nextInt(ALPHABET.length)];
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        DelimiterScanner scalar = DelimiterScanners.scalar();
+        DelimiterScanner preferred = DelimiterScanners.preferred();
+        for (int from = 0; from < data.length; from += 3) {
+            int to = Math.min(data.length, from + random.nextInt(200));
+            Assert.assertEquals(scalar.nextDelimiter(buffer, from, to),
+                    preferred.nextDelimiter(buffer, from, to));
+        }
+    }
+
+    @Test
+    public void nextDelimiterReturnsEndOfRangeWhenNoneFound() {
+        ByteBuffer buffer = ByteBuffer.wrap(new byte[100]);
+        Assert.assertEquals(100, DelimiterScanners.preferred().nextDelimiter(buffer, 0, 100));
+    }
+}
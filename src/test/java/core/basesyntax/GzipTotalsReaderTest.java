@@ -0,0 +1,83 @@
+package core.basesyntax;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+public class GzipTotalsReaderTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void multiMemberFileMatchesUncompressedFile() throws IOException {
+        byte[] data = Files.readAllBytes(Path.of("banana.csv"));
+        Path source = folder.getRoot().toPath().resolve("banana.csv.gz");
+        try (OutputStream output = Files.newOutputStream(source)) {
+            // Members cut in the middle of lines, like a block-wise compressor does
+            for (int offset = 0; offset < data.length; offset += 17) {
+                GZIPOutputStream member = new GZIPOutputStream(output);
+                member.write(data, offset, Math.min(17, data.length - offset));
+                member.finish();
+            }
+        }
+        Totals expected = new BufferedTotalsReader().read(Path.of("banana.csv"));
+
+        for (int rangeSize = 1; rangeSize < 200; rangeSize += 7) {
+            Totals actual = new GzipTotalsReader(4, rangeSize).read(source);
+            Assert.assertEquals(expected.supply, actual.supply);
+            Assert.assertEquals(expected.buy, actual.buy);
+            Assert.assertEquals(expected.lines, actual.lines);
+        }
+    }
+
+    @Test
+    public void smallPooledBuffersSplitHeadersAndDataLikeLargeOnes() throws IOException {
+        byte[] data = Files.readAllBytes(Path.of("banana.csv"));
+        Path source = folder.getRoot().toPath().resolve("banana.csv.gz");
+        try (OutputStream output = Files.newOutputStream(source)) {
+            for (int offset = 0; offset < data.length; offset += 40) {
+                GZIPOutputStream member = new GZIPOutputStream(output);
+                member.write(data, offset, Math.min(40, data.length - offset));
+                member.finish();
+            }
+        }
+        Totals expected = new BufferedTotalsReader().read(Path.of("banana.csv"));
+        ByteBufferPool pool = new ByteBufferPool(16, ByteBufferPool.MIN_BUFFER_CAPACITY);
+
+        for (int rangeSize = 1; rangeSize < 200; rangeSize += 7) {
+            Totals actual = new GzipTotalsReader(4, rangeSize, pool).read(source);
+            Assert.assertEquals(expected.supply, actual.supply);
+            Assert.assertEquals(expected.buy, actual.buy);
+            Assert.assertEquals(expected.lines, actual.lines);
+        }
+        Assert.assertEquals(0, pool.getExhaustions());
+    }
+
+    @Test
+    public void getStatisticReadsGzipFileTransparently() throws IOException {
+        Path source = folder.getRoot().toPath().resolve("apple.csv.gz");
+        try (OutputStream output = new GZIPOutputStream(Files.newOutputStream(source))) {
+            output.write(Files.readAllBytes(Path.of("apple.csv")));
+        }
+        String toFileName = folder.getRoot().toPath().resolve("report.csv").toString();
+
+        String report = new WorkWithFile().getStatistic(source.toString(), toFileName);
+
+        Assert.assertEquals(new WorkWithFile().createReport(
+                new BufferedTotalsReader().read(Path.of("apple.csv"))), report);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void getStatisticRejectsCorruptGzipFile() throws IOException {
+        Path source = folder.getRoot().toPath().resolve("broken.csv.gz");
+        Files.writeString(source, "supply,10\n");
+        new WorkWithFile().getStatistic(source.toString(),
+                folder.getRoot().toPath().resolve("report.csv").toString());
+    }
+}
@@ -0,0 +1,88 @@
+package core.basesyntax;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+public class IncrementalTotalsReaderTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void readIncludesAppendedLinesAndUnfinishedLastLine() throws IOException {
+        IncrementalTotalsReader reader = new IncrementalTotalsReader();
+        Path source = folder.newFile("source.csv").toPath();
+        Files.writeString(source, "supply,10\nbuy,3\nsupply,");
+
+        Totals first = reader.read(source);
+        Assert.assertEquals(10, first.supply);
+        Assert.assertEquals(3, first.buy);
+
+        Files.writeString(source, "7\nbuy,1", StandardOpenOption.APPEND);
+        Totals second = reader.read(source);
+        Assert.assertEquals(17, second.supply);
+        Assert.assertEquals(4, second.buy);
+    }
+
+    @Test
+    public void replacedOrTruncatedFileIsRecomputed() throws IOException {
+        IncrementalTotalsReader reader = new IncrementalTotalsReader();
+        Path source = folder.newFile("source.csv").toPath();
+        Files.writeString(source, "supply,10\nsupply,20\n");
+        Assert.assertEquals(30, reader.read(source).supply);
+
+        Files.writeString(source, "buy,5\n");
+        Totals truncated = reader.read(source);
+        Assert.assertEquals(0, truncated.supply);
+        Assert.assertEquals(5, truncated.buy);
+
+        Path replacement = folder.newFile("replacement.csv").toPath();
+        Files.writeString(replacement, "supply,1\nsupply,2\n");
+        Files.move(replacement, source, StandardCopyOption.REPLACE_EXISTING);
+        Totals replaced = reader.read(source);
+        Assert.assertEquals(3, replaced.supply);
+        Assert.assertEquals(0, replaced.buy);
+    }
+
+    @Test
+    public void fileRewrittenInPlaceIsRecomputed() throws IOException {
+        IncrementalTotalsReader reader = new IncrementalTotalsReader();
+        Path source = folder.newFile("source.csv").toPath();
+        Files.writeString(source, "supply,10\n");
+        Assert.assertEquals(10, reader.read(source).supply);
+
+        Files.writeString(source, "supply,20\nbuy,1\n", StandardOpenOption.WRITE);
+        Totals rewritten = reader.read(source);
+        Assert.assertEquals(20, rewritten.supply);
+        Assert.assertEquals(1, rewritten.buy);
+    }
+
+    @Test
+    public void checkpointsOfDeletedAndLeastRecentlyReadFilesAreDropped() throws IOException {
+        IncrementalTotalsReader reader = new IncrementalTotalsReader(
+                ByteBufferPool.getDefault(), 2);
+        Path first = folder.newFile("first.csv").toPath();
+        Path second = folder.newFile("second.csv").toPath();
+        Path third = folder.newFile("third.csv").toPath();
+        for (Path source : new Path[] {first, second, third}) {
+            Files.writeString(source, "supply,1\n");
+            reader.read(source);
+        }
+        Assert.assertEquals(2, reader.size());
+
+        Files.delete(third);
+        try {
+            reader.read(third);
+            Assert.fail("A deleted source must not be read");
+        } catch (NoSuchFileException e) {
+            Assert.assertEquals(1, reader.size());
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package core.basesyntax;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.Stream;
+
+public class IndexedTotalsReaderTest {
+    private static final long BLOCK_SIZE = 32;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void inPlaceCorrectionParsesOnlyChangedBlock() throws IOException {
+        Path source = folder.getRoot().toPath().resolve("source.csv");
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            content.append("supply,").append(100 + i).append("\nbuy,7\n");
+        }
+        Files.writeString(source, content);
+        IndexedTotalsReader reader = new IndexedTotalsReader(BLOCK_SIZE);
+        assertSameTotals(source, reader.read(source));
+        Assert.assertTrue(Files.exists(BlockIndex.sidecarOf(source)));
+
+        Files.writeString(source, content.toString().replace("supply,150", "supply,951"));
+        Totals corrected = reader.read(source);
+
+        assertSameTotals(source, corrected);
+        Assert.assertTrue(corrected.bytes > 0);
+        Assert.assertTrue(corrected.bytes <= 2 * BLOCK_SIZE);
+    }
+
+    @Test
+    public void changedLengthsAndAppendsAreRecomputed() throws IOException {
+        Path source = folder.getRoot().toPath().resolve("source.csv");
+        Files.writeString(source, "supply,10\nbuy,3\nsupply,20\nbuy,4\nsupply,30\nbuy,5");
+        IndexedTotalsReader reader = new IndexedTotalsReader(BLOCK_SIZE);
+        reader.read(source);
+
+        Files.writeString(source, "0\nsupply,1", StandardOpenOption.APPEND);
+        assertSameTotals(source, reader.read(source));
+
+        Files.writeString(source, "supply,1000\nbuy,3\nsupply,20\nbuy,4\nsupply,30\n");
+        assertSameTotals(source, reader.read(source));
+
+        Files.writeString(source, "buy,1\n");
+        assertSameTotals(source, reader.read(source));
+    }
+
+    @Test
+    public void damagedSidecarIsIgnored() throws IOException {
+        Path source = folder.getRoot().toPath().resolve("source.csv");
+        Files.writeString(source, Files.readString(Path.of("banana.csv")));
+        Files.writeString(BlockIndex.sidecarOf(source), "not an index");
+
+        assertSameTotals(source, new IndexedTotalsReader(BLOCK_SIZE).read(source));
+        assertSameTotals(source, new IndexedTotalsReader(BLOCK_SIZE).read(source));
+    }
+
+    @Test
+    public void sidecarThatCantBeSavedDoesNotFailRead() throws IOException {
+        Path source = folder.getRoot().toPath().resolve("source.csv");
+        Files.writeString(source, "supply,10\nbuy,3\n".repeat(20));
+        Path sidecar = Files.createDirectory(BlockIndex.sidecarOf(source));
+        Files.writeString(sidecar.resolve("blocker"), "");
+        long failuresBefore = StatisticMetrics.getInstance().getIndexSaveFailures();
+
+        assertSameTotals(source, new IndexedTotalsReader(BLOCK_SIZE).read(source));
+
+        Assert.assertTrue(StatisticMetrics.getInstance().getIndexSaveFailures() > failuresBefore);
+        try (Stream<Path> files = Files.list(folder.getRoot().toPath())) {
+            Assert.assertEquals(2, files.count());
+        }
+    }
+
+    private void assertSameTotals(Path source, Totals actual) throws IOException {
+        Totals expected = new BufferedTotalsReader().read(source);
+        Assert.assertEquals(expected.supply, actual.supply);
+        Assert.assertEquals(expected.buy, actual.buy);
+    }
+}
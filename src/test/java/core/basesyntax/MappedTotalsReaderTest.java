@@ -0,0 +1,21 @@
+package core.basesyntax;
+
+import org.junit.Assert;
+import org.junit.Test;
+import java.io.IOException;
+import java.nio.file.Path;
+
+public class MappedTotalsReaderTest {
+
+    @Test
+    public void readHandlesRecordsSpanningSegments() throws IOException {
+        Totals totals = new MappedTotalsReader(4).read(Path.of("banana.csv"));
+        Assert.assertEquals(491, totals.supply);
+        Assert.assertEquals(293, totals.buy);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void segmentLargerThanMappingLimitIsRejected() {
+        new MappedTotalsReader(Integer.MAX_VALUE + 1L);
+    }
+}
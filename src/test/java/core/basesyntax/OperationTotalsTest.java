@@ -0,0 +1,144 @@
+package core.basesyntax;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+public class OperationTotalsTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void addSumsEveryDistinctKey() {
+        OperationTotals operations = new OperationTotals();
+        ByteBuffer keys = ByteBuffer.wrap("xxreturnspoil".getBytes(StandardCharsets.US_ASCII));
+        for (int i = 0; i < 1000; i++) {
+            ByteBuffer key = ByteBuffer.wrap(("op" + i % 100).getBytes(StandardCharsets.US_ASCII));
+            operations.add(key, 0, key.limit(), i);
+        }
+        operations.add(keys, 2, 6, 5);
+        operations.add(keys, 8, 5, 7);
+        operations.add(keys, 2, 6, 1);
+
+        Map<String, Integer> sums = operations.toSortedMap(StandardCharsets.US_ASCII);
+        Assert.assertEquals(102, operations.size());
+        Assert.assertEquals(Integer.valueOf(6), sums.get("return"));
+        Assert.assertEquals(Integer.valueOf(7), sums.get("spoil"));
+        Assert.assertEquals(Integer.valueOf(0 + 100 + 200 + 300 + 400 + 500 + 600 + 700 + 800
+                + 900), sums.get("op0"));
+    }
+
+    @Test
+    public void addAllMergesSums() {
+        OperationTotals first = parse("supply,1\nreturn,2\n");
+        first.addAll(parse("return,3\ntransfer,4\n"));
+
+        Map<String, Integer> sums = first.toSortedMap(StandardCharsets.US_ASCII);
+        Assert.assertEquals(Map.of("return", 5, "transfer", 4), sums);
+    }
+
+    @Test
+    public void parserGroupsKeysCutBetweenSlices() {
+        String data = "supply,10\nreturn,2\r\nspoil,-3,,\ntransfer,4\n,5\nresult,9\nreturn,x\n"
+                + "buy,1";
+        OperationTotals expected = parse(data);
+        byte[] bytes = data.getBytes(StandardCharsets.US_ASCII);
+        for (int sliceSize = 1; sliceSize < bytes.length; sliceSize++) {
+            Totals totals = new Totals();
+            OperationTotals operations = new OperationTotals();
+            TotalsParser parser = new TotalsParser(totals, operations);
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            for (int from = 0; from < bytes.length; from += sliceSize) {
+                parser.parse(buffer, from, Math.min(bytes.length, from + sliceSize));
+            }
+            parser.finish();
+            Assert.assertEquals(expected.toSortedMap(StandardCharsets.US_ASCII),
+                    operations.toSortedMap(StandardCharsets.US_ASCII));
+            Assert.assertEquals(2, totals.getSkippedLines(SkipReason.UNKNOWN_OPERATION));
+            Assert.assertEquals(1, totals.getSkippedLines(SkipReason.NON_NUMERIC));
+            Assert.assertEquals(10, totals.supply);
+            Assert.assertEquals(1, totals.buy);
+        }
+        Assert.assertEquals(Map.of("return", 2, "spoil", -3, "transfer", 4),
+                expected.toSortedMap(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void getStatisticByOperationWritesRowPerOperation() throws IOException {
+        Path source = folder.getRoot().toPath().resolve("source.csv");
+        Files.writeString(source, "supply,10\nspoil,2\nbuy,3\nreturn,1\nspoil,2\nresult,9\n");
+        String toFileName = folder.getRoot().toPath().resolve("report.csv").toString();
+
+        String report = new WorkWithFile().getStatisticByOperation(source.toString(),
+                toFileName);
+
+        Assert.assertEquals("supply,10" + System.lineSeparator()
+                + "buy,3" + System.lineSeparator()
+                + "return,1" + System.lineSeparator()
+                + "spoil,4" + System.lineSeparator()
+                + "result,7", report);
+        Assert.assertEquals(report, Files.readString(Path.of(toFileName)));
+    }
+
+    @Test
+    public void getStatisticByOperationDecompressesGzipSources() throws IOException {
+        String data = "supply,10\nspoil,2\nbuy,3\nreturn,1\nspoil,2\n";
+        Path source = folder.getRoot().toPath().resolve("source.csv");
+        Files.writeString(source, data);
+        Path compressed = folder.getRoot().toPath().resolve("source.csv.gz");
+        try (OutputStream output = new GZIPOutputStream(Files.newOutputStream(compressed))) {
+            output.write(data.getBytes(StandardCharsets.US_ASCII));
+        }
+        String toFileName = folder.getRoot().toPath().resolve("report.csv").toString();
+
+        try (WorkWithFile workWithFile = new WorkWithFile()) {
+            Assert.assertEquals(workWithFile.getStatisticByOperation(source.toString(),
+                    toFileName), workWithFile.getStatisticByOperation(compressed.toString(),
+                    toFileName));
+        }
+    }
+
+    @Test
+    public void getStatisticByOperationRejectsBinarySources() {
+        String binary = folder.getRoot().toPath().resolve("banana.wwfb").toString();
+        Path report = folder.getRoot().toPath().resolve("report.csv");
+
+        try (WorkWithFile workWithFile = new WorkWithFile()) {
+            workWithFile.convertToBinary("banana.csv", binary);
+            workWithFile.getStatisticByOperation(binary, report.toString());
+            Assert.fail("A binary source must not be summed by operation");
+        } catch (IllegalArgumentException e) {
+            Assert.assertFalse(Files.exists(report));
+        }
+    }
+
+    @Test
+    public void namesThatDecodeAlikeShareOneSum() {
+        OperationTotals operations = new OperationTotals();
+        ByteBuffer keys = ByteBuffer.wrap(new byte[] {'r', (byte) 0xff, 'r', (byte) 0xfe});
+        operations.add(keys, 0, 2, 1);
+        operations.add(keys, 2, 2, 2);
+
+        Map<String, Integer> sums = operations.toSortedMap(StandardCharsets.UTF_8);
+        Assert.assertEquals(1, sums.size());
+        Assert.assertEquals(Integer.valueOf(3), sums.get("r\ufffd"));
+    }
+
+    private OperationTotals parse(String data) {
+        OperationTotals operations = new OperationTotals();
+        TotalsParser parser = new TotalsParser(new Totals(), operations);
+        byte[] bytes = data.getBytes(StandardCharsets.US_ASCII);
+        parser.parse(ByteBuffer.wrap(bytes), 0, bytes.length);
+        parser.finish();
+        return operations;
+    }
+}
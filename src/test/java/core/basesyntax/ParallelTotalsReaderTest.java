@@ -0,0 +1,31 @@
+package core.basesyntax;
+
+import org.junit.Assert;
+import org.junit.Test;
+import java.io.IOException;
+import java.nio.file.Path;
+
+public class ParallelTotalsReaderTest {
+
+    @Test
+    public void readMatchesSequentialTotalsForEveryChunkSize() throws IOException {
+        Totals expected = new BufferedTotalsReader().read(Path.of("grape.csv"));
+        for (int chunkSize = 1; chunkSize < 40; chunkSize++) {
+            Totals actual = new ParallelTotalsReader(4, chunkSize).read(Path.of("grape.csv"));
+            Assert.assertEquals("Wrong supply for chunk size " + chunkSize,
+                    expected.supply, actual.supply);
+            Assert.assertEquals("Wrong buy for chunk size " + chunkSize,
+                    expected.buy, actual.buy);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonPositiveParallelismIsRejected() {
+        new ParallelTotalsReader(0, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonPositiveChunkSizeIsRejected() {
+        new ParallelTotalsReader(4, 0);
+    }
+}
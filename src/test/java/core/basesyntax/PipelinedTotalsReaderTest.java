@@ -0,0 +1,98 @@
+package core.basesyntax;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class PipelinedTotalsReaderTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void readMatchesBufferedReaderForAnyBufferSize() throws IOException {
+        Path source = folder.getRoot().toPath().resolve("source.csv");
+        Files.writeString(source, "supply,10\r\nbuy,3\rsupply,+7,,\nreturn,5\n"
+                + "supply,123456789012\nbuy," + "0".repeat(100) + "1\nsupply,-4");
+        Totals expected = new BufferedTotalsReader().read(source);
+
+        for (int parserThreads = 1; parserThreads <= 3; parserThreads++) {
+            for (int bufferSize = 64; bufferSize < 128; bufferSize++) {
+                ByteBufferPool bufferPool = new ByteBufferPool(16, bufferSize);
+                try (PipelinedTotalsReader reader = new PipelinedTotalsReader(parserThreads,
+                        bufferPool)) {
+                    Totals actual = reader.read(source);
+                    Assert.assertEquals(expected.supply, actual.supply);
+                    Assert.assertEquals(expected.buy, actual.buy);
+                    Assert.assertEquals(expected.lines, actual.lines);
+                    Assert.assertEquals(expected.getMalformedLines(),
+                            actual.getMalformedLines());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void carriageReturnsAndLongLinesDoNotGrowBuffers() throws IOException {
+        Path source = folder.getRoot().toPath().resolve("source.csv");
+        Files.writeString(source, "supply,1\r".repeat(50) + "buy," + "0".repeat(500) + "2\r\n"
+                + "supply,3\r\n".repeat(30) + "buy,4\r");
+        Totals expected = new BufferedTotalsReader().read(source);
+
+        for (int parserThreads = 1; parserThreads <= 3; parserThreads++) {
+            for (int bufferSize = 64; bufferSize < 128; bufferSize++) {
+                ByteBufferPool bufferPool = new ByteBufferPool(16, bufferSize);
+                try (PipelinedTotalsReader reader = new PipelinedTotalsReader(parserThreads,
+                        bufferPool)) {
+                    Totals actual = reader.read(source);
+                    Assert.assertEquals(expected.supply, actual.supply);
+                    Assert.assertEquals(expected.buy, actual.buy);
+                    Assert.assertEquals(expected.lines, actual.lines);
+                    Assert.assertEquals(expected.getMalformedLines(),
+                            actual.getMalformedLines());
+                    Assert.assertEquals(0, bufferPool.getExhaustions());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void concurrentReadsShareParserThreadsAndBuffers() throws Exception {
+        Path source = folder.getRoot().toPath().resolve("source.csv");
+        Files.writeString(source, "supply,10\nbuy,3\n".repeat(1000));
+        Totals expected = new BufferedTotalsReader().read(source);
+        ByteBufferPool bufferPool = new ByteBufferPool(2 * 4, 64);
+        ExecutorService readers = Executors.newFixedThreadPool(4);
+
+        try (PipelinedTotalsReader reader = new PipelinedTotalsReader(2, bufferPool)) {
+            List<Future<Totals>> reads = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                reads.add(readers.submit(() -> reader.read(source)));
+            }
+            for (Future<Totals> read : reads) {
+                Assert.assertEquals(expected.supply, read.get().supply);
+                Assert.assertEquals(expected.buy, read.get().buy);
+            }
+        } finally {
+            readers.shutdown();
+        }
+        Assert.assertEquals(0, bufferPool.getExhaustions());
+    }
+
+    @Test
+    public void getStatisticPipelined() {
+        String toFileName = folder.getRoot().toPath().resolve("report.csv").toString();
+        try (WorkWithFile workWithFile = new WorkWithFile(3)) {
+            Assert.assertEquals(workWithFile.getStatistic("grape.csv", toFileName),
+                    workWithFile.getStatistic("grape.csv", toFileName, ReadMode.PIPELINED));
+        }
+    }
+}
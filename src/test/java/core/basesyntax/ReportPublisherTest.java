@@ -0,0 +1,92 @@
+package core.basesyntax;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.Stream;
+
+public class ReportPublisherTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void publishReplacesTargetWithEveryDurability() throws IOException {
+        Path target = folder.getRoot().toPath().resolve("report.csv");
+        Files.writeString(target, "a much longer old report that must disappear completely");
+        for (Durability durability : Durability.values()) {
+            ReportPublisher publisher = new ReportPublisher(durability);
+
+            publisher.publish(target, encode("result," + durability.ordinal()));
+            publisher.sync();
+
+            Assert.assertEquals("result," + durability.ordinal(), Files.readString(target));
+            assertOnlyFile(target);
+        }
+    }
+
+    @Test
+    public void failedPublishLeavesNoTemporaryFile() throws IOException {
+        Path target = folder.getRoot().toPath().resolve("report.csv");
+        Files.writeString(target, "result,1");
+        ReportPublisher publisher = new ReportPublisher(Durability.FSYNC);
+        Path directory = Files.createDirectory(folder.getRoot().toPath().resolve("dir"));
+
+        try {
+            publisher.publish(directory, encode("result,2"));
+            Assert.fail("A directory must not be replaced by a report");
+        } catch (IOException e) {
+            Assert.assertEquals("result,1", Files.readString(target));
+        }
+        try (Stream<Path> files = Files.list(folder.getRoot().toPath())) {
+            Assert.assertEquals(2, files.count());
+        }
+    }
+
+    @Test
+    public void groupCommitReplacesTargetOnlyOnSync() throws IOException {
+        Path target = folder.getRoot().toPath().resolve("report.csv");
+        Files.writeString(target, "result,1");
+        ReportPublisher publisher = new ReportPublisher(Durability.GROUP_COMMIT);
+
+        publisher.publish(target, encode("result,2"));
+        publisher.publish(target, encode("result,3"));
+
+        Assert.assertEquals("result,1", Files.readString(target));
+        try (Stream<Path> files = Files.list(folder.getRoot().toPath())) {
+            Assert.assertEquals(2, files.count());
+        }
+        publisher.sync();
+        Assert.assertEquals("result,3", Files.readString(target));
+        assertOnlyFile(target);
+    }
+
+    @Test
+    public void workWithFileWritesReportsWithGroupCommit() throws IOException {
+        Path target = folder.getRoot().toPath().resolve("report.csv");
+        Files.writeString(target, "stale", StandardOpenOption.CREATE);
+        WorkWithFile workWithFile = new WorkWithFile(1, null, Durability.GROUP_COMMIT);
+
+        String report = workWithFile.getStatistic("apple.csv", target.toString());
+        workWithFile.syncReports();
+
+        Assert.assertEquals(report, Files.readString(target));
+        assertOnlyFile(target);
+    }
+
+    private void assertOnlyFile(Path target) throws IOException {
+        try (Stream<Path> files = Files.list(target.getParent())) {
+            Assert.assertArrayEquals(new Object[] {target}, files.toArray());
+        }
+    }
+
+    private ByteBuffer encode(String content) {
+        return ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
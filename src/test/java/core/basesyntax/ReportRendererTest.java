@@ -0,0 +1,47 @@
+package core.basesyntax;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class ReportRendererTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void renderMatchesEncodedReport() {
+        int[] amounts = {0, 1, -1, 9, 10, 99, -100, 1_500_431_213, Integer.MAX_VALUE,
+                Integer.MIN_VALUE};
+        ReportRenderer renderer = new ReportRenderer();
+        WorkWithFile workWithFile = new WorkWithFile();
+        for (int supply : amounts) {
+            for (int buy : amounts) {
+                Totals totals = new Totals();
+                totals.supply = supply;
+                totals.buy = buy;
+
+                ByteBuffer expected = Charset.defaultCharset()
+                        .encode(workWithFile.createReport(totals));
+                Assert.assertEquals(expected, renderer.render(totals));
+            }
+        }
+    }
+
+    @Test
+    public void writeStatisticWritesSameFileAsGetStatistic() throws IOException {
+        Path expected = folder.getRoot().toPath().resolve("expected.csv");
+        Path actual = folder.getRoot().toPath().resolve("actual.csv");
+        WorkWithFile workWithFile = new WorkWithFile();
+
+        workWithFile.getStatistic("banana.csv", expected.toString());
+        workWithFile.writeStatistic("banana.csv", actual.toString(), ReadMode.BUFFERED);
+
+        Assert.assertArrayEquals(Files.readAllBytes(expected), Files.readAllBytes(actual));
+    }
+}
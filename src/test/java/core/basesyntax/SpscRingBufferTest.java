@@ -0,0 +1,44 @@
+package core.basesyntax;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SpscRingBufferTest {
+    @Test
+    public void offerFailsWhenFullAndPollWhenEmpty() {
+        SpscRingBuffer<Integer> ring = new SpscRingBuffer<>(2);
+        Assert.assertTrue(ring.offer(1));
+        Assert.assertTrue(ring.offer(2));
+        Assert.assertFalse(ring.offer(3));
+        Assert.assertEquals(Integer.valueOf(1), ring.poll());
+        Assert.assertEquals(Integer.valueOf(2), ring.poll());
+        Assert.assertNull(ring.poll());
+    }
+
+    @Test
+    public void elementsArriveInOrderAcrossThreads() throws InterruptedException {
+        int count = 100_000;
+        SpscRingBuffer<Integer> ring = new SpscRingBuffer<>(64);
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < count; i++) {
+                while (!ring.offer(i)) {
+                    Thread.yield();
+                }
+            }
+        });
+        producer.start();
+        for (int expected = 0; expected < count; expected++) {
+            Integer actual;
+            while ((actual = ring.poll()) == null) {
+                Thread.yield();
+            }
+            Assert.assertEquals(expected, actual.intValue());
+        }
+        producer.join();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void capacityMustBePowerOfTwo() {
+        new SpscRingBuffer<Integer>(3);
+    }
+}
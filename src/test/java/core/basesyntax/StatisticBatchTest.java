@@ -0,0 +1,159 @@
+package core.basesyntax;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+public class StatisticBatchTest {
+    private static final String APPLE_RESULT_FILE = "appleBatchResult.csv";
+    private static final String GRAPE_RESULT_FILE = "grapeBatchResult.csv";
+    private static final String MISSING_RESULT_FILE = "missingBatchResult.csv";
+    private static final Path FILE_DESCRIPTORS = Path.of("/proc/self/fd");
+    private static final int TREE_FILES = 100;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @After
+    public void clearResults() throws IOException {
+        Files.deleteIfExists(Path.of(APPLE_RESULT_FILE));
+        Files.deleteIfExists(Path.of(GRAPE_RESULT_FILE));
+        Files.deleteIfExists(Path.of(MISSING_RESULT_FILE));
+    }
+
+    @Test
+    public void getStatisticsReturnsReportsAndErrorsInInputOrder() {
+        try (WorkWithFile workWithFile = new WorkWithFile()) {
+            StatisticBatch batch = new StatisticBatch(workWithFile, 2);
+
+            List<FileStatistic> results = batch.getStatistics(List.of(
+                    new FilePair("apple.csv", APPLE_RESULT_FILE),
+                    new FilePair("missing.csv", MISSING_RESULT_FILE),
+                    new FilePair("grape.csv", GRAPE_RESULT_FILE)));
+
+            Assert.assertEquals(3, results.size());
+            Assert.assertTrue(results.get(0).isSuccessful());
+            Assert.assertTrue(results.get(0).getReport().endsWith("result,73"));
+            Assert.assertFalse(results.get(1).isSuccessful());
+            Assert.assertNotNull(results.get(1).getError());
+            Assert.assertTrue(results.get(2).isSuccessful());
+            Assert.assertTrue(results.get(2).getReport().endsWith("result,0"));
+        }
+    }
+
+    @Test
+    public void getStatisticsMirrorsMatchingFilesOfDirectoryTree() throws IOException {
+        Path sources = folder.newFolder("sources").toPath();
+        Files.createDirectories(sources.resolve("store1/fruit"));
+        Files.copy(Path.of("apple.csv"), sources.resolve("apple.csv"));
+        Files.copy(Path.of("grape.csv"), sources.resolve("store1/fruit/grape.csv"));
+        Files.writeString(sources.resolve("store1/notes.txt"), "supply,1\n");
+        Path reports = folder.getRoot().toPath().resolve("reports");
+        List<FileStatistic> results;
+        try (WorkWithFile workWithFile = new WorkWithFile()) {
+            results = new StatisticBatch(workWithFile, 2, 1).getStatistics(sources.toString(),
+                    "**.csv", reports.toString());
+        }
+
+        Assert.assertEquals(2, results.size());
+        Assert.assertTrue(results.get(0).getReport().endsWith("result,73"));
+        Assert.assertTrue(results.get(1).getReport().endsWith("result,0"));
+        Assert.assertEquals(results.get(0).getReport(),
+                Files.readString(reports.resolve("apple.csv")));
+        Assert.assertEquals(results.get(1).getReport(),
+                Files.readString(reports.resolve("store1/fruit/grape.csv")));
+        Assert.assertFalse(Files.exists(reports.resolve("store1/notes.txt")));
+    }
+
+    @Test
+    public void getStatisticsReadsTreeSourcesLikeSingleReports() throws IOException {
+        Path sources = folder.newFolder("sources").toPath();
+        try (OutputStream output = new GZIPOutputStream(
+                Files.newOutputStream(sources.resolve("apple.csv.gz")))) {
+            output.write(Files.readAllBytes(Path.of("apple.csv")));
+        }
+        Files.writeString(sources.resolve("broken.csv.gz"), "supply,1\n");
+        Files.writeString(sources.resolve("digits.csv"), "supply,\u0663\u0663\nbuy,1\n",
+                StandardCharsets.UTF_8);
+        Path reports = folder.getRoot().toPath().resolve("reports");
+        try (WorkWithFile workWithFile = new WorkWithFile()) {
+            StatisticBatch batch = new StatisticBatch(workWithFile, 2, 1);
+
+            List<FileStatistic> results = batch.getStatistics(sources.toString(), "*",
+                    reports.toString());
+
+            Assert.assertEquals(3, results.size());
+            Assert.assertTrue(results.get(0).getReport().endsWith("result,73"));
+            Assert.assertFalse(results.get(1).isSuccessful());
+            Assert.assertEquals(workWithFile.getStatistic(
+                    sources.resolve("digits.csv").toString(),
+                    folder.getRoot().toPath().resolve("digits.csv").toString()),
+                    results.get(2).getReport());
+        }
+    }
+
+    @Test
+    public void getStatisticsKeepsAtMostMaxOpenFilesOfTreeOpen() throws Exception {
+        Assume.assumeTrue(Files.isDirectory(FILE_DESCRIPTORS));
+        Path sources = folder.newFolder("sources").toPath().toRealPath();
+        for (int i = 0; i < TREE_FILES; i++) {
+            Files.copy(Path.of("apple.csv"), sources.resolve("apple" + i + ".csv"));
+        }
+        Path reports = folder.getRoot().toPath().resolve("reports");
+        ByteBufferPool bufferPool = new ByteBufferPool(2, ByteBufferPool.MIN_BUFFER_CAPACITY);
+        AtomicInteger maxOpenSources = new AtomicInteger();
+        AtomicBoolean done = new AtomicBoolean();
+        Thread sampler = new Thread(() -> {
+            while (!done.get()) {
+                maxOpenSources.accumulateAndGet(countOpenFiles(sources), Math::max);
+            }
+        });
+        sampler.start();
+        try (WorkWithFile workWithFile = new WorkWithFile(1, null, Durability.NONE,
+                bufferPool)) {
+            List<FileStatistic> results = new StatisticBatch(workWithFile, 1, 1)
+                    .getStatistics(sources.toString(), "*.csv", reports.toString());
+
+            Assert.assertEquals(TREE_FILES, results.size());
+            Assert.assertTrue(results.stream().allMatch(FileStatistic::isSuccessful));
+        } finally {
+            done.set(true);
+            sampler.join();
+        }
+        Assert.assertTrue("Too many sources open at once: " + maxOpenSources.get(),
+                maxOpenSources.get() <= 1);
+        Assert.assertEquals(0, bufferPool.getExhaustions());
+    }
+
+    private static int countOpenFiles(Path directory) {
+        int openFiles = 0;
+        try (DirectoryStream<Path> descriptors = Files.newDirectoryStream(FILE_DESCRIPTORS)) {
+            for (Path descriptor : descriptors) {
+                try {
+                    Path target = Files.readSymbolicLink(descriptor);
+                    if (target.startsWith(directory) && !target.equals(directory)) {
+                        openFiles++;
+                    }
+                } catch (IOException e) {
+                    // The descriptor was closed while the directory was listed
+                }
+            }
+        } catch (IOException e) {
+            return 0;
+        }
+        return openFiles;
+    }
+}
@@ -0,0 +1,47 @@
+package core.basesyntax;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class StatisticEventTest {
+    private static final String EVENT_NAME = "core.basesyntax.Statistic";
+    private static final String RESULT_FILE = "eventResult.csv";
+    private static final String RECORDING_FILE = "statistic.jfr";
+
+    @After
+    public void clearResults() throws IOException {
+        Files.deleteIfExists(Path.of(RESULT_FILE));
+        Files.deleteIfExists(Path.of(RECORDING_FILE));
+    }
+
+    @Test
+    public void getStatisticEmitsEventWithCounters() throws IOException {
+        try (Recording recording = new Recording()) {
+            recording.enable(EVENT_NAME);
+            recording.start();
+            new WorkWithFile().getStatistic("orange.csv", RESULT_FILE);
+            recording.stop();
+            recording.dump(Path.of(RECORDING_FILE));
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(Path.of(RECORDING_FILE))
+                .stream()
+                .filter(event -> event.getEventType().getName().equals(EVENT_NAME))
+                .collect(Collectors.toList());
+        Assert.assertEquals(1, events.size());
+        RecordedEvent event = events.get(0);
+        Assert.assertEquals("orange.csv", event.getString("source"));
+        Assert.assertEquals(11, event.getLong("lines"));
+        Assert.assertEquals(0, event.getLong("malformedLines"));
+        Assert.assertEquals(Files.size(Path.of("orange.csv")), event.getLong("bytes"));
+    }
+}
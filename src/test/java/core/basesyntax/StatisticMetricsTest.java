@@ -0,0 +1,55 @@
+package core.basesyntax;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+public class StatisticMetricsTest {
+    private static final String RESULT_FILE = "metricsResult.csv";
+
+    @After
+    public void clearResults() throws IOException {
+        Files.deleteIfExists(Path.of(RESULT_FILE));
+    }
+
+    @Test
+    public void getStatisticIsVisibleThroughPlatformMBean() throws JMException {
+        StatisticMetrics metrics = StatisticMetrics.getInstance();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(StatisticMetrics.OBJECT_NAME);
+        long lines = (Long) server.getAttribute(name, "LinesParsed");
+        long bytes = metrics.getBytesRead();
+        long reports = metrics.getReportsWritten();
+        long writes = metrics.getWriteToFile().getCount();
+
+        new WorkWithFile().getStatistic("apple.csv", RESULT_FILE);
+
+        Assert.assertEquals(lines + 11, (long) (Long) server.getAttribute(name, "LinesParsed"));
+        Assert.assertEquals(bytes + Path.of("apple.csv").toFile().length(),
+                metrics.getBytesRead());
+        Assert.assertEquals(reports + 1, metrics.getReportsWritten());
+        CompositeData writeTimings = (CompositeData) server.getAttribute(name, "WriteToFile");
+        Assert.assertEquals(writes + 1, (long) (Long) writeTimings.get("count"));
+    }
+
+    @Test
+    public void percentileIsUpperBoundOfItsBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.record(100);
+        }
+        histogram.record(5000);
+
+        Assert.assertEquals(128, histogram.getPercentileNanos(50));
+        Assert.assertEquals(128, histogram.getPercentileNanos(99));
+        Assert.assertEquals(8192, histogram.getPercentileNanos(100));
+    }
+}
@@ -0,0 +1,155 @@
+package core.basesyntax;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Stream;
+
+public class StatisticServerTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final WorkWithFile workWithFile = new WorkWithFile(2, new TotalsCache(4));
+    private ExecutorService executor;
+    private StatisticServer server;
+    private Path root;
+
+    @Before
+    public void startServer() throws IOException {
+        root = folder.newFolder("root").toPath();
+        Files.copy(Path.of("grape.csv"), root.resolve("grape.csv"));
+        Files.copy(Path.of("apple.csv"), root.resolve("apple.csv"));
+        executor = StatisticServer.createExecutor(2);
+        server = new StatisticServer(workWithFile, root, 0, executor);
+        server.start();
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void statisticReturnsReportAndWritesFile() throws IOException {
+        String expected = workWithFile.getStatistic("grape.csv",
+                folder.getRoot().toPath().resolve("expected.csv").toString());
+
+        HttpURLConnection connection = request("POST", "from=" + encode("grape.csv")
+                + "&to=" + encode("report.csv") + "&mode=PARALLEL");
+
+        Assert.assertEquals(200, connection.getResponseCode());
+        Assert.assertEquals(expected, readBody(connection.getInputStream()));
+        Assert.assertEquals(expected, Files.readString(root.resolve("report.csv"),
+                Charset.defaultCharset()));
+    }
+
+    @Test
+    public void statisticWithoutTargetWritesNoFile() throws IOException {
+        String expected = workWithFile.createStatistic("apple.csv", ReadMode.BUFFERED);
+
+        HttpURLConnection connection = request("GET", "from=" + encode("apple.csv"));
+
+        Assert.assertEquals(200, connection.getResponseCode());
+        Assert.assertEquals(expected, readBody(connection.getInputStream()));
+        try (Stream<Path> files = Files.list(root)) {
+            Assert.assertEquals(2, files.count());
+        }
+    }
+
+    @Test
+    public void badRequestsAreRejected() throws IOException {
+        Assert.assertEquals(400, request("GET", "to=report.csv").getResponseCode());
+        Assert.assertEquals(400, request("GET", "from=apple.csv&mode=FAST").getResponseCode());
+        Assert.assertEquals(405, request("PUT", "from=apple.csv").getResponseCode());
+        HttpURLConnection missing = request("GET", "from=missing.csv");
+        Assert.assertEquals(500, missing.getResponseCode());
+        Assert.assertTrue(readBody(missing.getErrorStream()).startsWith("Can't read data"));
+    }
+
+    @Test
+    public void writesRequirePostAndStayUnderRoot() throws IOException, InterruptedException {
+        Path outside = folder.getRoot().toPath().resolve("outside.csv");
+
+        Assert.assertEquals(405, request("GET", "from=apple.csv&to=report.csv")
+                .getResponseCode());
+        Assert.assertEquals(403, request("POST", "from=apple.csv&to="
+                + encode(outside.toString())).getResponseCode());
+        Assert.assertEquals(403, request("POST", "from=apple.csv&to="
+                + encode("../outside.csv")).getResponseCode());
+        Assert.assertEquals(403, request("GET", "from="
+                + encode("data/../../root/apple.csv")).getResponseCode());
+        Assert.assertEquals(403, request("GET", "from="
+                + encode(Path.of("apple.csv").toAbsolutePath().toString())).getResponseCode());
+        HttpRequest crossOrigin = HttpRequest.newBuilder(URI.create("http://localhost:"
+                + server.getPort() + "/statistic?from=apple.csv&to=report.csv"))
+                .header("Origin", "http://example.com")
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        Assert.assertEquals(403, HttpClient.newHttpClient()
+                .send(crossOrigin, HttpResponse.BodyHandlers.discarding()).statusCode());
+
+        Assert.assertFalse(Files.exists(outside));
+        Assert.assertFalse(Files.exists(root.resolve("report.csv")));
+    }
+
+    @Test
+    public void symbolicLinksLeavingRootAreRejected() throws IOException {
+        Path outside = folder.newFolder("outside").toPath();
+        Files.copy(Path.of("apple.csv"), outside.resolve("secret.csv"));
+        Files.createSymbolicLink(root.resolve("secret.csv"), outside.resolve("secret.csv"));
+        Files.createSymbolicLink(root.resolve("reports"), outside);
+
+        Assert.assertEquals(403, request("GET", "from=secret.csv").getResponseCode());
+        Assert.assertEquals(403, request("GET", "from=" + encode("reports/secret.csv"))
+                .getResponseCode());
+        Assert.assertEquals(403, request("POST", "from=apple.csv&to="
+                + encode("reports/report.csv")).getResponseCode());
+        Assert.assertFalse(Files.exists(outside.resolve("report.csv")));
+    }
+
+    @Test
+    public void indexedModeRequiresPost() throws IOException {
+        Assert.assertEquals(405, request("GET", "from=apple.csv&mode=INDEXED")
+                .getResponseCode());
+        try (Stream<Path> files = Files.list(root)) {
+            Assert.assertEquals(2, files.count());
+        }
+        Assert.assertEquals(200, request("POST", "from=apple.csv&mode=INDEXED")
+                .getResponseCode());
+    }
+
+    private HttpURLConnection request(String method, String query) throws IOException {
+        URL url = new URL("http://localhost:" + server.getPort() + "/statistic?" + query);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod(method);
+        return connection;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static String readBody(InputStream body) throws IOException {
+        try (body) {
+            return new String(body.readAllBytes(), Charset.defaultCharset());
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package core.basesyntax;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+
+public class StatisticWatcherTest {
+    private static final Duration DEBOUNCE = Duration.ofMillis(300);
+    private static final long TIMEOUT_MILLIS = 20_000;
+    private static final long POLL_MILLIS = 20;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void burstOfAppendsRegeneratesReportOnce() throws Exception {
+        Path from = folder.newFolder("from").toPath();
+        Path to = folder.getRoot().toPath().resolve("to");
+        Path source = from.resolve("market.csv");
+        Path report = to.resolve("market.csv");
+        Files.writeString(source, "supply,10\nbuy,3\n");
+        Files.writeString(from.resolve("notes.txt"), "ignored");
+        WorkWithFile workWithFile = new WorkWithFile();
+
+        try (StatisticWatcher watcher = new StatisticWatcher(workWithFile, DEBOUNCE)) {
+            watcher.watch(from.toString(), to.toString());
+            awaitTrue(() -> watcher.getRegenerations() == 1);
+            Assert.assertEquals(expectedReport(10, 3), Files.readString(report));
+
+            for (int i = 0; i < 10; i++) {
+                Files.writeString(source, "supply,1\n", StandardOpenOption.APPEND);
+            }
+            awaitTrue(() -> watcher.getRegenerations() == 2);
+            Thread.sleep(DEBOUNCE.toMillis() * 2);
+
+            Assert.assertEquals(2, watcher.getRegenerations());
+            Assert.assertEquals(0, watcher.getFailures());
+            Assert.assertEquals(expectedReport(20, 3), Files.readString(report));
+            Assert.assertFalse(Files.exists(to.resolve("notes.txt")));
+        }
+    }
+
+    @Test
+    public void newAndRewrittenFilesAreRecomputed() throws Exception {
+        Path from = folder.newFolder("from").toPath();
+        Path to = folder.newFolder("to").toPath();
+
+        try (StatisticWatcher watcher = new StatisticWatcher(new WorkWithFile(), DEBOUNCE)) {
+            watcher.watch(from.toString(), to.toString());
+            Path source = from.resolve("market.csv");
+            Files.writeString(source, "supply,5\nbuy,1\n");
+            awaitTrue(() -> watcher.getRegenerations() == 1);
+
+            Files.writeString(source, "supply,7\n");
+            awaitTrue(() -> watcher.getRegenerations() == 2);
+            Assert.assertEquals(expectedReport(7, 0), Files.readString(to.resolve("market.csv")));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void reportsCannotGoToWatchedDirectory() throws IOException {
+        Path from = folder.newFolder("from").toPath();
+        try (StatisticWatcher watcher = new StatisticWatcher(new WorkWithFile())) {
+            watcher.watch(from.toString(), from.resolve(".").toString());
+        }
+    }
+
+    private static String expectedReport(int supply, int buy) {
+        return "supply," + supply + System.lineSeparator()
+                + "buy," + buy + System.lineSeparator()
+                + "result," + (supply - buy);
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            Assert.assertTrue("Timed out", System.currentTimeMillis() < deadline);
+            Thread.sleep(POLL_MILLIS);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package core.basesyntax;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class TotalsCacheTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void repeatedCallOnUnchangedFileIsServedFromCache() throws IOException {
+        TotalsCache cache = new TotalsCache(10);
+        WorkWithFile workWithFile = new WorkWithFile(1, cache);
+        String toFileName = folder.getRoot().toPath().resolve("report.csv").toString();
+
+        String first = workWithFile.getStatistic("apple.csv", toFileName);
+        String second = workWithFile.getStatistic("apple.csv", toFileName);
+
+        Assert.assertEquals(first, second);
+        Assert.assertEquals(1, cache.getMissCount());
+        Assert.assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void changedFileIsReadAgain() throws IOException {
+        TotalsCache cache = new TotalsCache(10);
+        Path source = folder.newFile("source.csv").toPath();
+        Files.writeString(source, "supply,10\n");
+        Assert.assertEquals(10, cache.get(source, new BufferedTotalsReader()).supply);
+
+        Files.writeString(source, "supply,10\nsupply,5\n");
+        Assert.assertEquals(15, cache.get(source, new BufferedTotalsReader()).supply);
+        Assert.assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void changesOfOneFileDoNotEvictOthers() throws IOException {
+        TotalsCache cache = new TotalsCache(2);
+        Path other = folder.newFile("other.csv").toPath();
+        Files.writeString(other, "buy,1\n");
+        cache.get(other, new BufferedTotalsReader());
+        Path source = folder.newFile("source.csv").toPath();
+
+        for (int i = 1; i <= 5; i++) {
+            Files.writeString(source, "supply,1\n".repeat(i));
+            Assert.assertEquals(i, cache.get(source, new BufferedTotalsReader()).supply);
+        }
+
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(1, cache.get(other, new BufferedTotalsReader()).buy);
+        Assert.assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void leastRecentlyUsedFileIsEvicted() throws IOException {
+        TotalsCache cache = new TotalsCache(2);
+        TotalsReader reader = new BufferedTotalsReader();
+        cache.get(Path.of("apple.csv"), reader);
+        cache.get(Path.of("grape.csv"), reader);
+        cache.get(Path.of("apple.csv"), reader);
+        cache.get(Path.of("orange.csv"), reader);
+        cache.get(Path.of("apple.csv"), reader);
+        cache.get(Path.of("grape.csv"), reader);
+
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(2, cache.getHitCount());
+        Assert.assertEquals(4, cache.getMissCount());
+    }
+}
@@ -0,0 +1,61 @@
+package core.basesyntax;
+
+import org.junit.Assert;
+import org.junit.Test;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public class TotalsParserTest {
+
+    @Test
+    public void parseSkipsMalformedLines() {
+        Totals totals = parse("supply,10\n"
+                + "buy,3\n"
+                + "supply\n"
+                + "supply,\n"
+                + "supply,1,2\n"
+                + "buy,abc\n"
+                + "buy,2147483648\n"
+                + "return,5\n"
+                + ",7\n"
+                + "\n");
+        Assert.assertEquals(10, totals.supply);
+        Assert.assertEquals(3, totals.buy);
+        Assert.assertEquals(10, totals.lines);
+        Assert.assertEquals(4, totals.getSkippedLines(SkipReason.WRONG_FIELD_COUNT));
+        Assert.assertEquals(1, totals.getSkippedLines(SkipReason.NON_NUMERIC));
+        Assert.assertEquals(1, totals.getSkippedLines(SkipReason.OVERFLOW));
+        Assert.assertEquals(2, totals.getSkippedLines(SkipReason.UNKNOWN_OPERATION));
+        Assert.assertEquals(6, totals.getMalformedLines());
+    }
+
+    @Test
+    public void parseAcceptsSignsTrailingDelimitersAndCarriageReturns() {
+        Totals totals = parse("supply,+10,,\r\nbuy,-2\rbuy,2147483647\nsupply,-2147483648");
+        Assert.assertEquals(10 + Integer.MIN_VALUE, totals.supply);
+        Assert.assertEquals(-2 + Integer.MAX_VALUE, totals.buy);
+    }
+
+    @Test
+    public void parseCarriesRecordsAcrossSlices() {
+        byte[] data = "supply,123\r\nbuy,45\nsupply,6".getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        Totals totals = new Totals();
+        TotalsParser parser = new TotalsParser(totals);
+        for (int i = 0; i < data.length; i++) {
+            parser.parse(buffer, i, i + 1);
+        }
+        parser.finish();
+        Assert.assertEquals(129, totals.supply);
+        Assert.assertEquals(45, totals.buy);
+    }
+
+    private Totals parse(String content) {
+        byte[] data = content.getBytes(StandardCharsets.US_ASCII);
+        Totals totals = new Totals();
+        TotalsParser parser = new TotalsParser(totals);
+        parser.parse(ByteBuffer.wrap(data), 0, data.length);
+        parser.finish();
+        return totals;
+    }
+}
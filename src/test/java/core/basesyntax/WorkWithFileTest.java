@@ -3,7 +3,11 @@ package core.basesyntax;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Test;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
 import java.nio.file.Files;
 import java.nio.file.Path;
 
@@ -16,6 +20,7 @@ public class WorkWithFileTest {
 
     @After
     public void clearResults() {
+        workWithFile.close();
         try {
             Files.deleteIfExists(Path.of(APPLE_RESULT_FILE));
             Files.deleteIfExists(Path.of(GRAPE_RESULT_FILE));
@@ -83,6 +88,70 @@ public class WorkWithFileTest {
             expectedResult, actualResult);
     }
 
+    @Test
+    public void getStatisticAboutAppleMemoryMapped() {
+        workWithFile.getStatistic("apple.csv", APPLE_RESULT_FILE, ReadMode.MEMORY_MAPPED);
+
+        String actualResult = readFromFile(APPLE_RESULT_FILE).trim();
+        String expectedResult = "supply,188" + System.lineSeparator()
+                + "buy,115" + System.lineSeparator()
+                + "result,73";
+        Assert.assertEquals(expectedResult, actualResult);
+    }
+
+    @Test
+    public void getStatisticAboutOrangeInParallel() {
+        try (WorkWithFile parallelWorkWithFile = new WorkWithFile(4)) {
+            parallelWorkWithFile.getStatistic("orange.csv", ORANGE_RESULT_FILE, ReadMode.PARALLEL);
+        }
+
+        String actualResult = readFromFile(ORANGE_RESULT_FILE).trim();
+        String expectedResult = "supply,295" + System.lineSeparator()
+                + "buy,154" + System.lineSeparator()
+                + "result,141";
+        Assert.assertEquals(expectedResult, actualResult);
+    }
+
+    @Test
+    public void getStatisticByOperationAboutApple() {
+        workWithFile.getStatisticByOperation("apple.csv", APPLE_RESULT_FILE);
+
+        String actualResult = readFromFile(APPLE_RESULT_FILE).trim();
+        String expectedResult = "supply,188" + System.lineSeparator()
+                + "buy,115" + System.lineSeparator()
+                + "result,73";
+        Assert.assertEquals(expectedResult, actualResult);
+    }
+
+    @Test
+    public void getStatisticFromStreamToStream() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (InputStream input = Files.newInputStream(Path.of("banana.csv"))) {
+            workWithFile.getStatistic(input, output);
+        }
+
+        String expectedResult = "supply,491" + System.lineSeparator()
+                + "buy,293" + System.lineSeparator()
+                + "result,198";
+        Assert.assertEquals(expectedResult, output.toString());
+    }
+
+    @Test
+    public void getStatisticFromChannelToChannel() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        String report = workWithFile.getStatistic(
+                Channels.newChannel(new ByteArrayInputStream("supply,5\nbuy,2\n".getBytes())),
+                Channels.newChannel(output));
+
+        Assert.assertEquals(report, output.toString());
+        Assert.assertTrue(report.endsWith("result,3"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonPositiveParallelismIsRejected() {
+        new WorkWithFile(0);
+    }
+
     private String readFromFile(String fileName) {
         try {
             return Files.readString(Path.of(fileName));